@@ -0,0 +1,20 @@
+-- Moves users.id from an identity column to the users_id_seq sequence with INCREMENT BY 50, which the
+-- User entity's pooled generator (allocationSize = 50) and UserRepository.insertIfAbsent expect.
+-- Run once against an existing database before starting a release with the sequence generator;
+-- Hibernate refuses to start while the increment is still 1. Safe to re-run.
+BEGIN;
+
+LOCK TABLE users IN ACCESS EXCLUSIVE MODE;
+
+-- drops the identity default together with the sequence that backed it; a no-op for serial columns,
+-- whose users_id_seq is kept and re-stepped below
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS users_id_seq;
+ALTER SEQUENCE users_id_seq INCREMENT BY 50 OWNED BY users.id;
+
+-- the pooled optimizer treats each value as the top of a block of 50, so the next value must be at
+-- least MAX(id) + 50 for the first block to start above every existing id
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 50, false);
+
+COMMIT;
@@ -0,0 +1,73 @@
+#!/usr/bin/env bash
+# Compares startup time of the packaging modes produced by `./mvnw -Pcds -DskipTests package`.
+#
+#   scripts/startup-benchmark.sh [runs]
+#
+# Each mode is started <runs> times (default 5) against the configuration in the environment (SPRING_*
+# variables or SPRING_CONFIG_ADDITIONAL_LOCATION) and stopped as soon as Spring Boot logs
+# "Started ... (process running for N)". The JVM-reported process time is collected and the median is
+# printed per mode. Keep the database and Redis warm and the machine otherwise idle between modes.
+# AOT bakes app.startup.lazy-beans in at build time, so the AOT modes use whatever the build saw.
+set -euo pipefail
+
+RUNS=${1:-5}
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TARGET="$ROOT/target"
+JAR=$(ls "$TARGET"/ecommerce-*.jar 2>/dev/null | grep -v '\.original$' | head -n 1 || true)
+CDS_JAR="$TARGET/cds/$(basename "${JAR:-missing.jar}")"
+JSA="$TARGET/cds/application.jsa"
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+LAZY_BEANS="--app.startup.lazy-beans=springEmailService,templateEngine,defaultTemplateResolver,thymeleafViewResolver"
+
+if [[ -z "$JAR" || ! -f "$CDS_JAR" ]]; then
+    echo "Build first: ./mvnw -Pcds -DskipTests package" >&2
+    exit 1
+fi
+
+# prints the "process running for" seconds of one start
+measure() {
+    local log
+    log=$(mktemp)
+    "$JAVA" "$@" >"$log" 2>&1 &
+    local pid=$!
+    local seconds=""
+    for _ in $(seq 1 600); do
+        seconds=$(sed -n 's/.*Started .* (process running for \([0-9.]*\)).*/\1/p' "$log" | head -n 1)
+        if [[ -n "$seconds" ]] || ! kill -0 "$pid" 2>/dev/null; then
+            break
+        fi
+        sleep 0.1
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    if [[ -z "$seconds" ]]; then
+        echo "Startup failed, log follows:" >&2
+        tail -n 40 "$log" >&2
+        rm -f "$log"
+        return 1
+    fi
+    rm -f "$log"
+    echo "$seconds"
+}
+
+run_mode() {
+    local name=$1
+    shift
+    local times=()
+    for _ in $(seq 1 "$RUNS"); do
+        times+=("$(measure "$@")")
+    done
+    local median
+    median=$(printf '%s\n' "${times[@]}" | sort -n | awk '{ a[NR] = $1 } END { print (NR % 2) ? a[(NR + 1) / 2] : (a[NR / 2] + a[NR / 2 + 1]) / 2 }')
+    printf '%-22s median %6ss   runs: %s\n' "$name" "$median" "${times[*]}"
+}
+
+run_mode "fat jar" -jar "$JAR"
+run_mode "extracted" -jar "$CDS_JAR"
+run_mode "extracted + lazy" -jar "$CDS_JAR" "$LAZY_BEANS"
+if [[ -f "$JSA" ]]; then
+    run_mode "cds" -XX:SharedArchiveFile="$JSA" -jar "$CDS_JAR"
+    run_mode "cds + aot" -XX:SharedArchiveFile="$JSA" -Dspring.aot.enabled=true -jar "$CDS_JAR"
+else
+    echo "No CDS archive at $JSA (training run skipped?); CDS modes not measured" >&2
+fi
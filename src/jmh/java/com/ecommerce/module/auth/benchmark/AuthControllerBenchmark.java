@@ -0,0 +1,93 @@
+package com.ecommerce.module.auth.benchmark;
+
+import com.ecommerce.module.auth.controller.AuthController;
+import com.ecommerce.module.auth.dto.request.RegisterRequest;
+import com.ecommerce.module.auth.dto.response.AuthResponse;
+import com.ecommerce.module.auth.service.AuthService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response building and JSON serialization of the controller, with the service layer stubbed out.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class AuthControllerBenchmark {
+
+    private AuthController controller;
+    private ObjectMapper objectMapper;
+    private RegisterRequest registerRequest;
+    private Map<String, String> loginBody;
+
+    @Setup
+    public void setUp() {
+        controller = new AuthController(new StubAuthService(), JwtTokenProviderBenchmark.newProvider(), null,
+                null, (type, userId, ip, detail) -> {
+                });
+        objectMapper = new ObjectMapper();
+        registerRequest = RegisterRequest.builder().fullName("Bench User").email("bench@example.com")
+                .password("password123").role("CUSTOMER").build();
+        loginBody = Map.of("email", "bench@example.com", "password", "password123", "deviceInfo", "bench");
+    }
+
+    @Benchmark
+    public byte[] register() throws Exception {
+        return objectMapper.writeValueAsBytes(controller.register(registerRequest).getBody());
+    }
+
+    @Benchmark
+    public byte[] login() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        return objectMapper.writeValueAsBytes(controller.login(loginBody, new MockHttpServletRequest(), response).getBody());
+    }
+
+    static class StubAuthService implements AuthService {
+        private final AuthResponse response = new AuthResponse(123L, "bench@example.com", "CUSTOMER", "Bench User",
+                "123.2b1c1f0e-5d0f-4c39-9d55-2f5d8d7a9c11", 0);
+
+        @Override
+        public AuthResponse register(RegisterRequest request) {
+            return response;
+        }
+
+        @Override
+        public void verifyEmail(String token) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resendVerification(String email) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AuthResponse login(String email, String password, String deviceInfo) {
+            return response;
+        }
+
+        @Override
+        public AuthResponse oauthLogin(String provider, String providerUserId, String email, String requestedRole,
+                String deviceInfo) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void forgotPassword(String email) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resetPassword(String token, String newPassword) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecommerce.module.auth.benchmark;
+
+import com.ecommerce.module.auth.security.JwtAuthenticationFilter;
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.RevokedTokenSet;
+import com.ecommerce.module.auth.security.VerifiedTokenCache;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthenticationFilterBenchmark {
+
+    private Filter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = JwtTokenProviderBenchmark.newProvider();
+        filter = new JwtAuthenticationFilter(new VerifiedTokenCache(provider, 10_000), new RevokedTokenSet());
+        request = new MockHttpServletRequest("GET", "/api/v1/orders");
+        request.setCookies(new Cookie("access_token",
+                provider.createAccessToken(123L, "bench@example.com", List.of("CUSTOMER"), 0)));
+        response = new MockHttpServletResponse();
+        chain = (req, res) -> {
+        };
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        try {
+            filter.doFilter(request, response, chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.module.auth.benchmark;
+
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+
+    private JwtTokenProvider provider;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = newProvider();
+        token = provider.createAccessToken(123L, "bench@example.com", List.of("CUSTOMER"), 0);
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return provider.createAccessToken(123L, "bench@example.com", List.of("CUSTOMER"), 0);
+    }
+
+    @Benchmark
+    public Jws<Claims> parse() {
+        return provider.parse(token);
+    }
+
+    static JwtTokenProvider newProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret",
+                "benchmark_secret_that_is_at_least_256_bits_long_________________________");
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+        return provider;
+    }
+}
@@ -0,0 +1,73 @@
+package com.ecommerce.module.auth.benchmark;
+
+import com.ecommerce.module.auth.dto.response.RotatedRefreshToken;
+import com.ecommerce.module.auth.service.impl.RefreshTokenServiceImpl;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RefreshTokenServiceBenchmark {
+
+    private static final List<String> ROLES = List.of("CUSTOMER");
+
+    @Param({ "true", "false" })
+    public boolean clientCache;
+
+    private EmbeddedRedis redis;
+    private TrackingRedisCache trackingCache;
+    private RefreshTokenServiceImpl service;
+
+    @State(Scope.Thread)
+    public static class Session {
+        String token;
+
+        @Setup
+        public void setUp(RefreshTokenServiceBenchmark benchmark) {
+            token = benchmark.service.createRefreshToken(42L, "bench@example.com", ROLES, "bench");
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        redis = new EmbeddedRedis();
+        trackingCache = new TrackingRedisCache(redis.connectionFactory(), redis.template(), new SimpleMeterRegistry(),
+                clientCache, 10_000, 60);
+        trackingCache.start();
+        service = new RefreshTokenServiceImpl(redis.template(), trackingCache,
+                new RedisGuard(new SimpleMeterRegistry(), 64, 20, 50, 20, 50, 5000, 5));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        trackingCache.stop();
+        redis.close();
+    }
+
+    @Benchmark
+    public String create() {
+        return service.createRefreshToken(42L, "bench@example.com", ROLES, "bench");
+    }
+
+    @Benchmark
+    public Long validate(Session session) {
+        return service.validateRefreshToken(session.token);
+    }
+
+    @Benchmark
+    public RotatedRefreshToken rotate(Session session) {
+        RotatedRefreshToken rotated = service.rotateRefreshToken(session.token, "bench");
+        session.token = rotated.getRefreshToken();
+        return rotated;
+    }
+}
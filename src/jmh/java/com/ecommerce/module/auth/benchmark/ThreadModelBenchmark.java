@@ -0,0 +1,75 @@
+package com.ecommerce.module.auth.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how fast a burst of I/O-bound requests drains on Tomcat's default 200 platform threads
+ * versus one virtual thread per request. Each request blocks for {@code ioMillis} like a JPA, Redis
+ * or SMTP call; with {@code pinned} the block happens inside {@code synchronized}, which on Java 21
+ * pins the carrier and removes the virtual-thread advantage.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    @Param({ "1000", "10000" })
+    public int requests;
+
+    @Param({ "false", "true" })
+    public boolean pinned;
+
+    @Param({ "20" })
+    public int ioMillis;
+
+    private ExecutorService executor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        executor = "virtual".equals(threads) ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int drainBurst() throws Exception {
+        List<Future<Integer>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            int id = i;
+            futures.add(executor.submit(() -> handle(id)));
+        }
+        int sum = 0;
+        for (Future<Integer> f : futures)
+            sum += f.get();
+        return sum;
+    }
+
+    private int handle(int id) throws InterruptedException {
+        if (pinned) {
+            Object monitor = new Object();
+            synchronized (monitor) {
+                Thread.sleep(ioMillis);
+            }
+        } else {
+            Thread.sleep(ioMillis);
+        }
+        return id;
+    }
+}
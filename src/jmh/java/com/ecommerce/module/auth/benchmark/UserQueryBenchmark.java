@@ -0,0 +1,139 @@
+package com.ecommerce.module.auth.benchmark;
+
+import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.module.user.repository.projection.UserCredentials;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login, verify and password reset reads and writes against H2, loading and saving the managed
+ * {@code User} as before ({@code *Entity}) and with the projections and bulk updates now used
+ * ({@code *Projection}, {@code *Update}). The {@code statements} and {@code entities} counters are
+ * totals of prepared statements and loaded entities; divide by {@code calls} for the per-call figure.
+ * {@code -prof gc} (on by default in the profile) reports allocations per operation. Password hashing is left out so only data access is measured.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserQueryBenchmark {
+
+    private static final String EMAIL = "bench@example.com";
+
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private Statistics statistics;
+    private UserRepository repository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private long passwordVersion;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Queries {
+        public long calls;
+        public long statements;
+        public long entities;
+        private long statementsBefore;
+        private long entitiesBefore;
+
+        void start(Statistics statistics) {
+            statementsBefore = statistics.getPrepareStatementCount();
+            entitiesBefore = statistics.getEntityLoadCount();
+        }
+
+        void stop(Statistics statistics) {
+            calls++;
+            statements += statistics.getPrepareStatementCount() - statementsBefore;
+            entities += statistics.getEntityLoadCount() - entitiesBefore;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:userbench;DB_CLOSE_DELAY=-1");
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.ecommerce.module.user.entity");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop",
+                "hibernate.generate_statistics", "true"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory emf = factoryBean.getObject();
+        statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(emf))
+                .getRepository(UserRepository.class);
+        JpaTransactionManager tm = new JpaTransactionManager(emf);
+        readWrite = new TransactionTemplate(tm);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+
+        readWrite.executeWithoutResult(s -> repository.save(User.builder().fullName("Bench").email(EMAIL)
+                .password("hash").role("CUSTOMER").isEmailVerified(true).isActive(true)
+                .createdAt(Instant.now()).updatedAt(Instant.now()).build()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        factoryBean.destroy();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public Object loginEntity(Queries queries) {
+        queries.start(statistics);
+        User user = readWrite.execute(s -> repository.findByEmail(EMAIL)).orElseThrow();
+        queries.stop(statistics);
+        return user.getPassword();
+    }
+
+    @Benchmark
+    public Object loginProjection(Queries queries) {
+        queries.start(statistics);
+        UserCredentials user = readOnly.execute(s -> repository.findCredentialsByEmail(EMAIL)).orElseThrow();
+        queries.stop(statistics);
+        return user.password();
+    }
+
+    @Benchmark
+    public Object resetEntity(Queries queries) {
+        String hash = "hash-" + ++passwordVersion;
+        queries.start(statistics);
+        User saved = readWrite.execute(s -> {
+            User u = repository.findByEmail(EMAIL).orElseThrow();
+            u.setPassword(hash);
+            return repository.save(u);
+        });
+        queries.stop(statistics);
+        return saved;
+    }
+
+    @Benchmark
+    public Object resetUpdate(Queries queries) {
+        String hash = "hash-" + ++passwordVersion;
+        queries.start(statistics);
+        Integer updated = readWrite.execute(s -> {
+            Long id = repository.findIdByEmail(EMAIL).orElseThrow();
+            return repository.updatePassword(id, hash, Instant.now());
+        });
+        queries.stop(statistics);
+        return updated;
+    }
+}
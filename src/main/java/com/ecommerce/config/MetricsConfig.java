@@ -0,0 +1,26 @@
+package com.ecommerce.config;
+
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Enables {@code @Timed} on service classes. */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * Per-command Lettuce latency ({@code lettuce.command.completion}, tagged by command type and
+     * remote address) with histograms.
+     */
+    @Bean
+    public MicrometerOptions micrometerOptions() {
+        return MicrometerOptions.builder().histogram(true).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Opt-in replica routing ({@code app.datasource.replicas.enabled=true}). The primary pool is still
+ * configured through {@code spring.datasource}; replicas are listed under
+ * {@code app.datasource.replicas.nodes}. Read-only transactions, which includes Spring Data
+ * repository reads called outside a transaction, go to a replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getNodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.getNodes().get(i);
+            HikariDataSource ds = DataSourceBuilder.create().type(HikariDataSource.class).url(node.getUrl())
+                    .username(node.getUsername()).password(node.getPassword()).build();
+            ds.setPoolName("replica-" + i);
+            ds.setMaximumPoolSize(properties.getMaximumPoolSize());
+            ds.setReadOnly(true);
+            replicas.add(ds);
+        }
+        // replicas join the rotation on the first scheduled check; until then reads use the primary
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getLagQuery(),
+                properties.getMaxLagMs(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
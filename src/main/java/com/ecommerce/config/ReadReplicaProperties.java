@@ -0,0 +1,42 @@
+package com.ecommerce.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.datasource.replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    /** Replicas further behind the primary than this are skipped until they catch up. */
+    private long maxLagMs = 1000;
+
+    private long healthCheckIntervalMs = 5000;
+
+    /**
+     * Must return the replication lag in milliseconds as a single number. The default reports no lag once
+     * the replica has replayed everything it received, so an idle primary does not look like a stalled
+     * replica.
+     */
+    private String lagQuery = "SELECT CASE WHEN NOT pg_is_in_recovery() "
+            + "OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private int maximumPoolSize = 10;
+
+    private List<Node> nodes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Node {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
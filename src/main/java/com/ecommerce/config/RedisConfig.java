@@ -1,30 +1,71 @@
 package com.ecommerce.config;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.protocol.RedisCommand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
-import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * The connection factory is Boot's, built from {@code spring.data.redis}: standalone, Sentinel
+ * ({@code sentinel.*}) or Cluster ({@code cluster.*}), with a commons-pool2 pool for blocking and
+ * transactional commands when {@code lettuce.pool.enabled} is set. Everything else shares one
+ * multiplexed connection.
+ */
 @Configuration
 public class RedisConfig {
 
+    // single-key and multi-key reads on the request path; everything else gets spring.data.redis.timeout
+    private static final Set<String> READ_COMMANDS = Set.of("GET", "MGET", "EXISTS", "TTL", "PTTL", "ZRANGE",
+            "ZRANGEBYSCORE", "ZREVRANGEBYSCORE", "ZCOUNT", "ZCARD", "ZSCORE", "SMEMBERS", "SCARD", "HGET", "HGETALL");
+
+    /**
+     * Gives every command a timeout, not just connects: reads get {@code app.redis.timeouts.read-ms},
+     * other commands {@code spring.data.redis.timeout}. Commands fail fast while disconnected instead of
+     * being buffered. Keeps the cluster options Boot already set.
+     */
     @Bean
-    public LettuceConnectionFactory redisConnectionFactory() {
-        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration();
-        // In production read host/port from config
-        config.setHostName("localhost");
-        config.setPort(6379);
-        return new LettuceConnectionFactory(config);
+    public LettuceClientConfigurationBuilderCustomizer lettuceTimeoutCustomizer(
+            @Value("${spring.data.redis.timeout:500ms}") Duration commandTimeout,
+            @Value("${app.redis.timeouts.read-ms:250}") long readTimeoutMs) {
+        long defaultMs = commandTimeout.toMillis();
+        TimeoutOptions.TimeoutSource timeouts = new TimeoutOptions.TimeoutSource() {
+            @Override
+            public long getTimeout(RedisCommand<?, ?, ?> command) {
+                return READ_COMMANDS.contains(command.getType().toString()) ? readTimeoutMs : defaultMs;
+            }
+        };
+        return builder -> {
+            ClientOptions current = builder.build().getClientOptions().orElseGet(ClientOptions::create);
+            builder.clientOptions(current.mutate()
+                    .timeoutOptions(TimeoutOptions.builder().timeoutSource(timeouts).build())
+                    .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                    .build());
+        };
     }
 
     @Bean
-    public RedisTemplate<String, String> redisTemplate(LettuceConnectionFactory connectionFactory) {
+    public RedisTemplate<String, String> redisTemplate(RedisConnectionFactory connectionFactory) {
         RedisTemplate<String, String> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
         template.setKeySerializer(new StringRedisSerializer());
         template.setValueSerializer(new StringRedisSerializer());
         return template;
     }
-}
\ No newline at end of file
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+}
@@ -0,0 +1,145 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections requested inside a read-only transaction to a healthy replica, round robin, and
+ * everything else to the primary. A replica is healthy when its last check succeeded and its lag was
+ * within {@code maxLagMs}; with none healthy, or if a replica refuses a connection, reads fall back to
+ * the primary.
+ * <p>
+ * The read-only flag is only set after the transaction manager has begun, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}. Flows that read and then
+ * write should run in a read-write transaction; reads of what the same client just wrote can run in a
+ * read-only transaction named {@link #PRIMARY_READ}, which keeps read-only semantics on the primary.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    /** Name of read-only transactions that must still see the primary's latest writes. */
+    public static final String PRIMARY_READ = "primary-read";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final String lagQuery;
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private volatile List<Replica> healthy = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, String lagQuery, long maxLagMs,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.lagQuery = lagQuery;
+        this.maxLagMs = maxLagMs;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica("replica-" + i, replicas.get(i));
+            this.replicas.add(replica);
+            Gauge.builder("db.replica.lag", replica, r -> r.lagMs).tag("replica", replica.name)
+                    .baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("db.replica.healthy", replica, r -> r.healthy ? 1 : 0).tag("replica", replica.name)
+                    .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(ds -> ds.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !PRIMARY_READ.equals(TransactionSynchronizationManager.getCurrentTransactionName())) {
+            List<Replica> candidates = healthy;
+            if (!candidates.isEmpty()) {
+                Replica replica = candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+                try {
+                    return source.open(replica.dataSource);
+                } catch (SQLException e) {
+                    log.warn("Replica {} refused a connection, using the primary: {}", replica.name, e.getMessage());
+                    markUnhealthy(replica);
+                }
+            }
+        }
+        return source.open(primary);
+    }
+
+    /**
+     * Measures every replica's lag and rebuilds the set reads may use.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        List<Replica> ok = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.healthy;
+            try (Connection c = replica.dataSource.getConnection();
+                    Statement st = c.createStatement();
+                    ResultSet rs = st.executeQuery(lagQuery)) {
+                replica.lagMs = rs.next() ? rs.getDouble(1) : Double.NaN;
+                replica.healthy = replica.lagMs <= maxLagMs;
+            } catch (SQLException e) {
+                replica.lagMs = Double.NaN;
+                replica.healthy = false;
+            }
+            if (replica.healthy)
+                ok.add(replica);
+            if (wasHealthy != replica.healthy)
+                log.info("Replica {} is now {} (lag {} ms)", replica.name, replica.healthy ? "in rotation"
+                        : "out of rotation", replica.lagMs);
+        }
+        healthy = List.copyOf(ok);
+    }
+
+    /** Closes the replica pools; the primary belongs to the application context. */
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Could not close {}: {}", replica.name, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private synchronized void markUnhealthy(Replica replica) {
+        replica.healthy = false;
+        healthy = healthy.stream().filter(r -> r != replica).toList();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+
+    private static final class Replica {
+        final String name;
+        final DataSource dataSource;
+        volatile double lagMs = Double.NaN;
+        volatile boolean healthy;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+    }
+}
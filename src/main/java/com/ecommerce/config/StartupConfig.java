@@ -0,0 +1,39 @@
+package com.ecommerce.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Defers creation of the beans named in {@code app.startup.lazy-beans} until first use, for beans that
+ * are expensive to build but rarely needed right after startup (mail rendering, Thymeleaf). Unlike
+ * {@code spring.main.lazy-initialization} this leaves filters, schedulers and listeners eager, so the
+ * first request does not pay for them. A lazy bean is still created early if an eager bean injects it
+ * directly; inject it through an {@code ObjectProvider} instead.
+ * <p>
+ * With AOT processing the flags are fixed at build time, so set the property for the AOT build too.
+ */
+@Configuration(proxyBeanMethods = false)
+@Slf4j
+public class StartupConfig {
+
+    @Bean
+    static BeanFactoryPostProcessor lazyBeansPostProcessor(Environment environment) {
+        List<String> names = Binder.get(environment)
+                .bind("app.startup.lazy-beans", Bindable.listOf(String.class)).orElse(List.of());
+        return beanFactory -> {
+            for (String name : names) {
+                if (beanFactory.containsBeanDefinition(name))
+                    beanFactory.getBeanDefinition(name).setLazyInit(true);
+                else
+                    log.warn("app.startup.lazy-beans: no bean named '{}'", name);
+            }
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events while virtual threads are enabled, so code that
+ * blocks inside {@code synchronized} or native frames shows up in the logs and in metrics.
+ */
+@Component
+@ConditionalOnProperty(name = "app.threads.pinning-monitor.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    @Value("${app.threads.pinning-monitor.stack-depth:8}")
+    private int stackDepth;
+
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        Counter pinned = meterRegistry.counter("jvm.threads.virtual.pinned");
+        Timer pinnedTime = meterRegistry.timer("jvm.threads.virtual.pinned.duration");
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            pinnedTime.record(event.getDuration());
+            log.warn("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), topFrames(event));
+        });
+        stream.startAsync();
+        log.info("Reporting virtual thread pinning longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    private String topFrames(RecordedEvent event) {
+        if (event.getStackTrace() == null)
+            return "<no stack trace>";
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < Math.min(stackDepth, frames.size()); i++) {
+            RecordedFrame f = frames.get(i);
+            sb.append("\n\tat ").append(f.getMethod().getType().getName()).append('.')
+                    .append(f.getMethod().getName()).append(':').append(f.getLineNumber());
+        }
+        return sb.toString();
+    }
+}
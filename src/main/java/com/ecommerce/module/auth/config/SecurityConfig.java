@@ -1,27 +1,70 @@
 package com.ecommerce.module.auth.config;
 
 import com.ecommerce.module.auth.security.JwtAuthenticationFilter;
+import com.ecommerce.module.auth.security.PasswordEncoders;
+import com.ecommerce.module.auth.security.RateLimitFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/v1/auth/**").permitAll()
+                        .requestMatchers("/api/v1/auth/**", "/.well-known/jwks.json").permitAll()
+                        .requestMatchers("/api/v1/admin/**").hasAuthority("ADMIN")
+                        .requestMatchers("/actuator/health").permitAll()
+                        // scraped on management.server.port, which stays off the public ingress; on the
+                        // application port the metrics are for admins only
+                        .requestMatchers(this::isPrometheusScrape).permitAll()
+                        .requestMatchers("/actuator/**").hasAuthority("ADMIN")
                         .anyRequest().authenticated())
                 .addFilterBefore(jwtAuthenticationFilter,
-                        org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class);
+                        org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         return http.build();
     }
+
+    private boolean isPrometheusScrape(HttpServletRequest request) {
+        return managementPort > 0 && request.getLocalPort() == managementPort
+                && "/actuator/prometheus".equals(request.getRequestURI());
+    }
+
+    /**
+     * bcrypt at {@code app.password.bcrypt.cost}, pinned so every node of a deployment hashes alike and
+     * stored hashes converge to it as users log in. Setting it to 0 calibrates the cost at startup to take
+     * about {@code target-ms} on this hardware instead; hashes are then only ever rehashed upward.
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+            @Value("${app.password.bcrypt.cost:12}") int cost,
+            @Value("${app.password.bcrypt.target-ms:250}") long targetMs,
+            @Value("${app.password.bcrypt.min-cost:10}") int minCost,
+            @Value("${app.password.bcrypt.max-cost:14}") int maxCost,
+            @Value("${app.password.bcrypt.over-cost-tolerance:1}") int overCostTolerance) {
+        int bcryptCost = cost > 0 ? cost
+                : PasswordEncoders.calibrateBcryptCost(Duration.ofMillis(targetMs), minCost, maxCost);
+        Gauge.builder("auth.password.bcrypt.cost", () -> bcryptCost).register(meterRegistry);
+        return PasswordEncoders.delegating(bcryptCost, overCostTolerance, cost > 0);
+    }
 }
\ No newline at end of file
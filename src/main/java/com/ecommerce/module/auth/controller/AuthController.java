@@ -2,7 +2,13 @@ package com.ecommerce.module.auth.controller;
 
 import com.ecommerce.module.auth.dto.request.RegisterRequest;
 import com.ecommerce.module.auth.dto.response.AuthResponse;
+import com.ecommerce.module.auth.dto.response.RotatedRefreshToken;
+import com.ecommerce.module.auth.entity.AuthEventType;
+import com.ecommerce.module.auth.exception.UnauthorizedException;
+import com.ecommerce.module.auth.security.AccessTokenDenyList;
+import com.ecommerce.module.auth.security.JwtAuthentication;
 import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.service.AuthAuditService;
 import com.ecommerce.module.auth.service.AuthService;
 import com.ecommerce.module.auth.service.RefreshTokenService;
 import jakarta.validation.Valid;
@@ -10,10 +16,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
-import com.ecommerce.module.user.repository.UserRepository;
 import org.springframework.web.bind.annotation.*;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @RestController
@@ -25,7 +32,8 @@ public class AuthController {
     private final AuthService authService;
     private final JwtTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
-    private final UserRepository userRepository;
+    private final AccessTokenDenyList accessTokenDenyList;
+    private final AuthAuditService authAudit;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
@@ -51,14 +59,22 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody java.util.Map<String, String> body, HttpServletResponse response) {
+    public ResponseEntity<?> login(@RequestBody java.util.Map<String, String> body, HttpServletRequest request,
+            HttpServletResponse response) {
         String email = body.get("email");
         String password = body.get("password");
         String deviceInfo = body.get("deviceInfo");
-        AuthResponse r = authService.login(email, password, deviceInfo);
+        AuthResponse r;
+        try {
+            r = authService.login(email, password, deviceInfo);
+        } catch (UnauthorizedException e) {
+            authAudit.record(AuthEventType.LOGIN_FAILED, 0, request.getRemoteAddr(), email);
+            throw e;
+        }
+        authAudit.record(AuthEventType.LOGIN, r.getUserId(), request.getRemoteAddr(), deviceInfo);
 
         String accessToken = jwtTokenProvider.createAccessToken(r.getUserId(), r.getEmail(),
-                java.util.List.of(r.getRole()));
+                java.util.List.of(r.getRole()), r.getSecurityStamp());
         ResponseCookie accessCookie = ResponseCookie.from("access_token", accessToken)
                 .httpOnly(true).secure(true).sameSite("Strict").path("/").maxAge(24 * 3600).build();
         response.addHeader(HttpHeaders.SET_COOKIE, accessCookie.toString());
@@ -69,39 +85,39 @@ public class AuthController {
     }
 
     @PostMapping("/refresh-token")
-    public ResponseEntity<?> refresh(@RequestBody java.util.Map<String, String> body, HttpServletResponse response) {
+    public ResponseEntity<?> refresh(@RequestBody java.util.Map<String, String> body, HttpServletRequest request,
+            HttpServletResponse response) {
         String oldRefresh = body.get("refreshToken");
-        Long uid = refreshTokenService.validateRefreshToken(oldRefresh);
-        if (uid == null)
+        // the refresh record carries the access token claims, so no user lookup is needed
+        RotatedRefreshToken rotated = refreshTokenService.rotateRefreshToken(oldRefresh, "web");
+        if (rotated == null) {
+            authAudit.record(AuthEventType.REFRESH_REJECTED, 0, request.getRemoteAddr(), null);
             return ResponseEntity.status(401).body(java.util.Map.of("status", "error", "error",
                     java.util.Map.of("code", "INVALID_TOKEN", "message", "Invalid token")));
-        String newRefresh = refreshTokenService.rotateRefreshToken(oldRefresh, uid, "web");
-        if (newRefresh == null)
-            return ResponseEntity.status(401).body(java.util.Map.of("status", "error", "error",
-                    java.util.Map.of("code", "REPLAY_DETECTED", "message", "Replay detected")));
-
-        // load user
-        var user = userRepository.findById(uid).orElse(null);
-        if (user == null)
-            return ResponseEntity.status(401).body(java.util.Map.of("status", "error", "error",
-                    java.util.Map.of("code", "USER_NOT_FOUND", "message", "User not found")));
+        }
+        authAudit.record(AuthEventType.REFRESH, rotated.getUserId(), request.getRemoteAddr(), null);
 
-        String newAccess = jwtTokenProvider.createAccessToken(user.getId(), user.getEmail(),
-                java.util.List.of(user.getRole()));
+        String newAccess = jwtTokenProvider.createAccessToken(rotated.getUserId(), rotated.getEmail(),
+                rotated.getRoles(), rotated.getSecurityStamp());
         ResponseCookie accessCookie = ResponseCookie.from("access_token", newAccess).httpOnly(true).secure(true)
                 .sameSite("Strict").path("/").maxAge(24 * 3600).build();
         response.addHeader(HttpHeaders.SET_COOKIE, accessCookie.toString());
 
-        return ResponseEntity
-                .ok(java.util.Map.of("status", "success", "data", java.util.Map.of("refreshToken", newRefresh)));
+        return ResponseEntity.ok(java.util.Map.of("status", "success", "data",
+                java.util.Map.of("refreshToken", rotated.getRefreshToken())));
     }
 
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestBody(required = false) java.util.Map<String, String> body,
-            HttpServletResponse response) {
+            HttpServletRequest request, HttpServletResponse response) {
         String refreshToken = body == null ? null : body.get("refreshToken");
         if (refreshToken != null)
             refreshTokenService.invalidate(refreshToken);
+        // the access token stays valid until exp unless it is revoked too
+        if (SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthentication auth) {
+            accessTokenDenyList.revoke(auth);
+            authAudit.record(AuthEventType.LOGOUT, auth.getUserId(), request.getRemoteAddr(), null);
+        }
         ResponseCookie clearAccess = ResponseCookie.from("access_token", "").httpOnly(true).secure(true).path("/")
                 .maxAge(0).build();
         response.addHeader(HttpHeaders.SET_COOKIE, clearAccess.toString());
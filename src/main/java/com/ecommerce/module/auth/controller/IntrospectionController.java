@@ -0,0 +1,49 @@
+package com.ecommerce.module.auth.controller;
+
+import com.ecommerce.module.auth.dto.response.TokenIntrospection;
+import com.ecommerce.module.auth.exception.UnauthorizedException;
+import com.ecommerce.module.auth.service.TokenIntrospectionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+public class IntrospectionController {
+
+    private final TokenIntrospectionService introspectionService;
+
+    @Value("${app.introspection.api-keys:}")
+    private List<String> apiKeys;
+
+    /**
+     * Batch token check for internal services, authenticated with one of {@code app.introspection.api-keys}
+     * in {@code X-Api-Key}. The endpoint rejects every call while no key is configured.
+     */
+    @PostMapping("/introspect")
+    public ResponseEntity<?> introspect(@RequestHeader(value = "X-Api-Key", required = false) String apiKey,
+            @RequestBody java.util.Map<String, List<String>> body) {
+        if (!isKnownClient(apiKey))
+            throw new UnauthorizedException("INVALID_CLIENT", "Unknown introspection client");
+        List<TokenIntrospection> results = introspectionService.introspect(body.get("tokens"));
+        return ResponseEntity.ok(java.util.Map.of("status", "success", "data", java.util.Map.of("results", results)));
+    }
+
+    private boolean isKnownClient(String apiKey) {
+        if (apiKey == null || apiKey.isEmpty())
+            return false;
+        byte[] presented = apiKey.getBytes(StandardCharsets.UTF_8);
+        boolean known = false;
+        for (String key : apiKeys) {
+            if (!key.isBlank())
+                known |= MessageDigest.isEqual(presented, key.getBytes(StandardCharsets.UTF_8));
+        }
+        return known;
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecommerce.module.auth.controller;
+
+import com.ecommerce.module.auth.security.SigningKeyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Public keys for verifying access tokens, so other services can check them without calling back. The
+ * document only changes when a key is published or retired; keys are published well before they sign,
+ * so callers can cache it for {@code jwt.jwks.max-age-seconds} and revalidate with the ETag.
+ */
+@RestController
+@ConditionalOnProperty(name = "jwt.signing-algorithm", havingValue = "ES256", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final SigningKeyStore signingKeyStore;
+
+    @Value("${jwt.jwks.max-age-seconds:300}")
+    private long maxAgeSeconds;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        SigningKeyStore.Jwks jwks = signingKeyStore.jwks();
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(maxAgeSeconds)).cachePublic();
+        if (jwks.etag().equals(ifNoneMatch))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(jwks.etag()).cacheControl(cacheControl).build();
+        return ResponseEntity.ok().eTag(jwks.etag()).cacheControl(cacheControl).body(jwks.json());
+    }
+}
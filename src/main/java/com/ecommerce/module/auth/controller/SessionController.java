@@ -0,0 +1,40 @@
+package com.ecommerce.module.auth.controller;
+
+import com.ecommerce.module.auth.dto.response.SessionInfo;
+import com.ecommerce.module.auth.exception.BadRequestException;
+import com.ecommerce.module.auth.exception.UnauthorizedException;
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/sessions")
+@RequiredArgsConstructor
+public class SessionController {
+
+    private static final int MAX_PAGE_SIZE = 50;
+
+    private final RefreshTokenService refreshTokenService;
+
+    /**
+     * The caller's signed-in devices, served from the per-user refresh index.
+     */
+    @GetMapping
+    public ResponseEntity<?> list(@RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        if (!(SecurityContextHolder.getContext().getAuthentication() instanceof JwtAuthentication auth))
+            throw new UnauthorizedException("UNAUTHORIZED", "Authentication required");
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE)
+            throw new BadRequestException("INVALID_PAGE", "page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+
+        List<SessionInfo> sessions = refreshTokenService.listSessions(auth.getUserId(), page, size);
+        long total = refreshTokenService.countSessions(auth.getUserId());
+        return ResponseEntity.ok(java.util.Map.of("status", "success", "data", java.util.Map.of(
+                "sessions", sessions, "page", page, "size", size, "total", total)));
+    }
+}
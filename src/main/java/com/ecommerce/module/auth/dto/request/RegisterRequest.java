@@ -2,6 +2,7 @@ package com.ecommerce.module.auth.dto.request;
 
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 
@@ -24,7 +25,8 @@ public class RegisterRequest {
     private String password;
 
     @NotBlank
-    private String role; // CUSTOMER | VENDOR
+    @Pattern(regexp = "CUSTOMER|VENDOR", message = "must be CUSTOMER or VENDOR")
+    private String role;
 
     private String deviceInfo;
 }
\ No newline at end of file
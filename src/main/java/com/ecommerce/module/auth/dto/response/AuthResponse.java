@@ -11,4 +11,5 @@ public class AuthResponse {
     private String role;
     private String fullName;
     private String refreshToken; // opaque token
+    private long securityStamp; // carried by the access token
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.ecommerce.module.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * A freshly rotated refresh token together with the claims needed to mint the matching access token.
+ */
+@Getter
+@AllArgsConstructor
+public class RotatedRefreshToken {
+    private String refreshToken;
+    private Long userId;
+    private String email;
+    private List<String> roles;
+    private long securityStamp;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.module.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One live refresh token as shown to its owner. {@code id} is a digest of the token id, never the token
+ * itself.
+ */
+@Getter
+@AllArgsConstructor
+public class SessionInfo {
+    private String id;
+    private String device;
+    private Instant issuedAt;
+    private Instant expiresAt;
+}
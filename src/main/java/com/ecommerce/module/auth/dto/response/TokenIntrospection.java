@@ -0,0 +1,19 @@
+package com.ecommerce.module.auth.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Introspection result for one token. {@code userId} and {@code expiresAt} are only set for active
+ * tokens; refresh tokens do not report an expiry.
+ */
+@Getter
+@AllArgsConstructor
+public class TokenIntrospection {
+    private String type;
+    private boolean active;
+    private Long userId;
+    private Instant expiresAt;
+}
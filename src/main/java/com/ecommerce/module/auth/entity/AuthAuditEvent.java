@@ -0,0 +1,42 @@
+package com.ecommerce.module.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.Instant;
+
+/**
+ * Append-only authentication audit trail. Rows are written in batches by the audit writer with plain
+ * JDBC; the entity only describes the table.
+ */
+@Entity
+@Immutable
+@Table(name = "auth_audit_event", indexes = {
+        @Index(name = "idx_auth_audit_user", columnList = "user_id, occurred_at"),
+        @Index(name = "idx_auth_audit_occurred", columnList = "occurred_at") })
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthAuditEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 30)
+    private AuthEventType type;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(length = 45)
+    private String ip;
+
+    @Column(length = 255)
+    private String detail;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+}
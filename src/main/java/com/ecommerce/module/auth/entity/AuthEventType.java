@@ -0,0 +1,10 @@
+package com.ecommerce.module.auth.entity;
+
+public enum AuthEventType {
+    LOGIN,
+    LOGIN_FAILED,
+    LOGOUT,
+    REFRESH,
+    REFRESH_REJECTED,
+    PASSWORD_RESET
+}
@@ -0,0 +1,57 @@
+package com.ecommerce.module.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.Instant;
+
+/**
+ * Mail job written in the same transaction as the change that triggered it and delivered later by
+ * the outbox worker. Templates are rendered at send time, so a row only carries the template inputs.
+ * The link holds a live token, so it is cleared once the message is SENT or DEAD and the row is purged
+ * after the retention period.
+ */
+@Entity
+@Table(name = "auth_email_outbox", indexes = @Index(name = "idx_email_outbox_pending", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EmailTemplate template;
+
+    @Column(nullable = false, length = 150)
+    private String recipient;
+
+    @Column(columnDefinition = "text")
+    private String link;
+
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private String status = "PENDING"; // PENDING | SENT | DEAD
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    @Builder.Default
+    private Instant nextAttemptAt = Instant.now();
+
+    @Column(name = "last_error", columnDefinition = "text")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "sent_at")
+    private Instant sentAt;
+}
@@ -0,0 +1,6 @@
+package com.ecommerce.module.auth.entity;
+
+public enum EmailTemplate {
+    VERIFY_EMAIL,
+    PASSWORD_RESET
+}
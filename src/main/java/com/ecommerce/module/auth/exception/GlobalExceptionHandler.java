@@ -1,5 +1,8 @@
 package com.ecommerce.module.auth.exception;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,8 +16,11 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<?> handleBadRequest(BadRequestException ex) {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, ex.getCode(), ex.getMessage(), null);
@@ -30,6 +36,21 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.UNAUTHORIZED, ex.getCode(), ex.getMessage(), null);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(buildErrorResponse(HttpStatus.TOO_MANY_REQUESTS, ex.getCode(), ex.getMessage(), null).getBody());
+    }
+
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<?> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, ex.getCode(), ex.getMessage(), null)
+                        .getBody());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> handleAll(Exception ex) {
         ex.printStackTrace();
@@ -41,6 +62,7 @@ public class GlobalExceptionHandler {
         List<Map<String, String>> details = ex.getBindingResult().getFieldErrors().stream()
                 .map(fe -> Map.of("field", fe.getField(), "message", fe.getDefaultMessage()))
                 .collect(Collectors.toList());
+        countError(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR");
         Map<String, Object> error = Map.of(
                 "code", "VALIDATION_ERROR",
                 "message", "Request validation failed",
@@ -54,6 +76,7 @@ public class GlobalExceptionHandler {
 
     private ResponseEntity<?> buildErrorResponse(HttpStatus status, String code, String message,
             List<Map<String, String>> details) {
+        countError(status, code);
         Map<String, Object> error = new HashMap<>();
         error.put("code", code);
         error.put("message", message);
@@ -66,4 +89,10 @@ public class GlobalExceptionHandler {
                 "meta", Map.of("timestamp", Instant.now().toString(), "requestId", "-"));
         return ResponseEntity.status(status).body(body);
     }
+
+    // codes are constants from the exception sites, so the tag stays low-cardinality
+    private void countError(HttpStatus status, String code) {
+        meterRegistry.counter("api.errors", "code", code == null ? "UNKNOWN" : code, "status",
+                String.valueOf(status.value())).increment();
+    }
 }
\ No newline at end of file
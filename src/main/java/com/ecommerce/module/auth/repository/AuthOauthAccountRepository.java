@@ -1,7 +1,10 @@
 package com.ecommerce.module.auth.repository;
 
 import com.ecommerce.module.auth.entity.AuthOauthAccount;
+import com.ecommerce.module.user.cache.UserProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -11,4 +14,27 @@ public interface AuthOauthAccountRepository extends JpaRepository<AuthOauthAccou
     Optional<AuthOauthAccount> findByProviderAndProviderUserId(String provider, String providerUserId);
 
     Optional<AuthOauthAccount> findByProviderAndEmail(String provider, String email);
-}
\ No newline at end of file
+
+    /**
+     * Resolves a provider account straight to its user in one joined query, read as a projection.
+     */
+    @Query("""
+            select new com.ecommerce.module.user.cache.UserProfile(u.id, u.email, u.role, u.fullName,
+                u.isEmailVerified, u.isActive)
+            from AuthOauthAccount a join User u on u.id = a.userId
+            where a.provider = :provider and a.providerUserId = :providerUserId""")
+    Optional<UserProfile> findLinkedUser(@Param("provider") String provider,
+            @Param("providerUserId") String providerUserId);
+
+    /**
+     * Links a provider account to a user unless it is already linked, in one statement. Returns the
+     * linked user id, or empty when another caller linked it first.
+     */
+    @Query(value = """
+            INSERT INTO auth_oauth_accounts (user_id, provider, provider_user_id, email, created_at, updated_at)
+            VALUES (:userId, :provider, :providerUserId, :email, now(), now())
+            ON CONFLICT (provider, provider_user_id) DO NOTHING
+            RETURNING user_id""", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("userId") Long userId, @Param("provider") String provider,
+            @Param("providerUserId") String providerUserId, @Param("email") String email);
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.module.auth.repository;
+
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Locks a batch of due messages; rows locked by another worker are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM auth_email_outbox WHERE status = 'PENDING' AND next_attempt_at <= :now "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutboxMessage> lockDue(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update EmailOutboxMessage m set m.status = 'SENT', m.sentAt = :now, m.lastError = null, m.link = null "
+            + "where m.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("now") Instant now);
+
+    /**
+     * Deletes up to {@code limit} finished messages created before {@code cutoff}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM auth_email_outbox WHERE id IN (SELECT id FROM auth_email_outbox "
+            + "WHERE status IN ('SENT', 'DEAD') AND created_at < :cutoff ORDER BY id LIMIT :limit)", nativeQuery = true)
+    int deleteFinishedBefore(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    long countByStatus(String status);
+}
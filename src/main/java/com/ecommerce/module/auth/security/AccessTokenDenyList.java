@@ -0,0 +1,131 @@
+package com.ecommerce.module.auth.security;
+
+import com.ecommerce.module.auth.util.RedisGuard;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations.TypedTuple;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Revokes access tokens before their expiry. Revocations are stored in Redis, in sorted sets scored by
+ * expiry (token ids) or revocation time ({@code userId|stamp} members), and broadcast over pub/sub so
+ * every node's {@link RevokedTokenSet} picks them up at once. A periodic sync reloads both sets, which
+ * covers messages lost while a node was disconnected, and trims entries no live token can match. Writes
+ * go through {@link RedisGuard}, so an unavailable Redis fails fast with a 503.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AccessTokenDenyList {
+
+    static final String TOKENS_KEY = "auth:revoked:tokens";
+    static final String USERS_KEY = "auth:revoked:users";
+    static final String CHANNEL = "auth:revoked";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisGuard redisGuard;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final RevokedTokenSet revoked;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.access-expiry-seconds}")
+    private long accessExpirySeconds;
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("auth.denylist.size", revoked, RevokedTokenSet::tokenCount).tag("kind", "token")
+                .register(meterRegistry);
+        Gauge.builder("auth.denylist.size", revoked, RevokedTokenSet::userCount).tag("kind", "user")
+                .register(meterRegistry);
+        // subscribe before the first load so nothing revoked in between is missed
+        listenerContainer.addMessageListener((message, pattern) -> apply(
+                new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+        sync();
+    }
+
+    /** Revokes one access token until it expires. */
+    public void revoke(JwtAuthentication auth) {
+        if (auth.getTokenId() == null)
+            return;
+        long exp = auth.getExpiresAt().getEpochSecond();
+        revoked.addToken(auth.getTokenId(), exp);
+        redisGuard.run("denylist.revoke", () -> {
+            redisTemplate.opsForZSet().add(TOKENS_KEY, auth.getTokenId(), exp);
+            redisTemplate.convertAndSend(CHANNEL, "t|" + auth.getTokenId() + "|" + exp);
+        });
+    }
+
+    /**
+     * Revokes every access token issued to a user under a security stamp below {@code stamp}, which is
+     * the value the stamp was just bumped to.
+     */
+    public void revokeUser(Long userId, long stamp) {
+        long now = Instant.now().getEpochSecond();
+        revoked.addUser(userId, stamp, now);
+        redisGuard.run("denylist.revoke-user", () -> {
+            redisTemplate.opsForZSet().add(USERS_KEY, userId + "|" + stamp, now);
+            redisTemplate.convertAndSend(CHANNEL, "u|" + userId + "|" + stamp + "|" + now);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.deny-list.sync-interval-ms:30000}")
+    public void sync() {
+        long now = Instant.now().getEpochSecond();
+        try {
+            redisTemplate.opsForZSet().removeRangeByScore(TOKENS_KEY, Double.NEGATIVE_INFINITY, now - 1);
+            redisTemplate.opsForZSet().removeRangeByScore(USERS_KEY, Double.NEGATIVE_INFINITY,
+                    now - accessExpirySeconds - 1);
+            load(redisTemplate.opsForZSet().rangeWithScores(TOKENS_KEY, 0, -1), false);
+            load(redisTemplate.opsForZSet().rangeWithScores(USERS_KEY, 0, -1), true);
+        } catch (RuntimeException e) {
+            log.warn("Could not sync access token deny-list: {}", e.getMessage());
+        }
+        revoked.purgeExpired(now, accessExpirySeconds);
+    }
+
+    private void load(Set<TypedTuple<String>> entries, boolean users) {
+        if (entries == null)
+            return;
+        for (TypedTuple<String> e : entries) {
+            if (e.getValue() == null || e.getScore() == null)
+                continue;
+            if (users) {
+                // userId|stamp; members without a stamp were written by earlier releases
+                String[] member = e.getValue().split("\\|");
+                revoked.addUser(Long.parseLong(member[0]), member.length > 1 ? Long.parseLong(member[1]) : 0,
+                        e.getScore().longValue());
+            } else
+                revoked.addToken(e.getValue(), e.getScore().longValue());
+        }
+    }
+
+    private void apply(String message) {
+        // t|<jti>|<exp> or u|<userId>|<stamp>|<revokedAt>
+        String[] parts = message.split("\\|");
+        try {
+            if (parts.length == 3 && "t".equals(parts[0]))
+                revoked.addToken(parts[1], Long.parseLong(parts[2]));
+            else if (parts.length == 4 && "u".equals(parts[0]))
+                revoked.addUser(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+            else if (parts.length == 3 && "u".equals(parts[0]))
+                // u|<userId>|<revokedAt> from nodes still on the previous release
+                revoked.addUser(Long.parseLong(parts[1]), 0, Long.parseLong(parts[2]));
+            else
+                log.warn("Ignoring malformed deny-list message '{}'", message);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed deny-list message '{}'", message);
+        }
+    }
+}
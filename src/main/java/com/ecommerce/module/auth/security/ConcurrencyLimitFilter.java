@@ -0,0 +1,157 @@
+package com.ecommerce.module.auth.security;
+
+import com.ecommerce.module.auth.util.AdaptiveConcurrencyLimit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sheds load on the auth endpoints instead of queueing it. Every endpoint has its own
+ * {@link AdaptiveConcurrencyLimit}; a request over the limit gets a 503 {@code OVERLOADED} with
+ * Retry-After at once, before security, rate limiting or any hashing runs.
+ * <p>
+ * Cheap endpoints that keep signed-in users signed in (refresh, logout, verify) have high priority. While
+ * any of them is congested, the expensive ones (login, register and the password flows, which compete with
+ * them for CPU, the hashing pool and the database) may only use {@code low-priority-share} of their limit.
+ * <p>
+ * Metrics: {@code auth.concurrency.limit} and {@code auth.concurrency.inflight} gauges and the
+ * {@code auth.concurrency.rejected} counter, each tagged by endpoint.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    public enum Priority {
+        HIGH, LOW
+    }
+
+    private static final Map<String, Priority> ENDPOINTS = Map.of(
+            "/api/v1/auth/refresh-token", Priority.HIGH,
+            "/api/v1/auth/logout", Priority.HIGH,
+            "/api/v1/auth/verify-email", Priority.HIGH,
+            "/api/v1/auth/login", Priority.LOW,
+            "/api/v1/auth/register", Priority.LOW,
+            "/api/v1/auth/forgot-password", Priority.LOW,
+            "/api/v1/auth/reset-password", Priority.LOW,
+            "/api/v1/auth/resend-verification", Priority.LOW);
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.concurrency-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${app.concurrency-limit.min-limit:2}")
+    private int minLimit;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit;
+
+    @Value("${app.concurrency-limit.tolerance:1.5}")
+    private double tolerance;
+
+    @Value("${app.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${app.concurrency-limit.low-priority-share:0.5}")
+    private double lowPriorityShare;
+
+    @Value("${app.concurrency-limit.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final Map<String, AdaptiveConcurrencyLimit> limits = new HashMap<>();
+    private List<AdaptiveConcurrencyLimit> highPriority;
+
+    @PostConstruct
+    public void init() {
+        for (Map.Entry<String, Priority> e : ENDPOINTS.entrySet()) {
+            AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, tolerance,
+                    smoothing, backoffRatio);
+            limits.put(e.getKey(), limit);
+            String endpoint = e.getKey();
+            Gauge.builder("auth.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                    .tag("endpoint", endpoint).register(meterRegistry);
+            Gauge.builder("auth.concurrency.inflight", limit, AdaptiveConcurrencyLimit::inflight)
+                    .tag("endpoint", endpoint).register(meterRegistry);
+        }
+        highPriority = ENDPOINTS.entrySet().stream().filter(e -> e.getValue() == Priority.HIGH)
+                .map(e -> limits.get(e.getKey())).toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !limits.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = path(request);
+        AdaptiveConcurrencyLimit limit = limits.get(path);
+        Priority priority = ENDPOINTS.get(path);
+        double share = priority == Priority.LOW && highPriorityCongested() ? lowPriorityShare : 1.0;
+        if (!limit.tryAcquire(share)) {
+            meterRegistry.counter("auth.concurrency.rejected", "endpoint", path, "priority",
+                    priority.name().toLowerCase()).increment();
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            // a 503 from further down (Redis circuit open, ...) means the endpoint is already overloaded
+            dropped = response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private boolean highPriorityCongested() {
+        for (AdaptiveConcurrencyLimit limit : highPriority)
+            if (limit.congested())
+                return true;
+        return false;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "status", "error",
+                "error", Map.of("code", "OVERLOADED", "message", "Server busy, retry later"),
+                "meta", Map.of("timestamp", Instant.now().toString(), "requestId", "-")));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,111 @@
+package com.ecommerce.module.auth.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable authentication built from verified access token claims. Instances are shared between
+ * requests through {@link VerifiedTokenCache}, so none of the mutators are supported.
+ */
+public final class JwtAuthentication implements Authentication {
+
+    public static final String STAMP_CLAIM = "stamp";
+
+    private final Long userId;
+    private final List<GrantedAuthority> authorities;
+    private final String tokenId;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final Long securityStamp;
+
+    private JwtAuthentication(Long userId, List<GrantedAuthority> authorities, String tokenId, Instant issuedAt,
+            Instant expiresAt, Long securityStamp) {
+        this.userId = userId;
+        this.authorities = authorities;
+        this.tokenId = tokenId;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.securityStamp = securityStamp;
+    }
+
+    public static JwtAuthentication from(Claims claims) {
+        Long userId = Long.valueOf(claims.getSubject());
+        List<?> roles = claims.get("roles", List.class);
+        List<GrantedAuthority> authorities = new ArrayList<>(roles == null ? 0 : roles.size());
+        if (roles != null) {
+            for (Object role : roles)
+                authorities.add(new SimpleGrantedAuthority(String.valueOf(role)));
+        }
+        Object stamp = claims.get(STAMP_CLAIM);
+        return new JwtAuthentication(userId, Collections.unmodifiableList(authorities), claims.getId(),
+                claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+                claims.getExpiration().toInstant(), stamp instanceof Number n ? n.longValue() : null);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * The security stamp the token was issued under, or {@code null} for tokens issued before the claim
+     * was added.
+     */
+    public Long getSecurityStamp() {
+        return securityStamp;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return userId;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        throw new IllegalArgumentException("JwtAuthentication is immutable");
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
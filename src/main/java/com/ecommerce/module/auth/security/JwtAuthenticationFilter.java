@@ -1,29 +1,23 @@
 package com.ecommerce.module.auth.security;
 
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jws;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.List;
-import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtTokenProvider jwtTokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenSet revokedTokens;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,23 +26,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (cookies != null) {
             for (Cookie c : cookies) {
                 if ("access_token".equals(c.getName())) {
-                    String token = c.getValue();
-                    try {
-                        Jws<Claims> parsed = jwtTokenProvider.parse(token);
-                        Claims claims = parsed.getBody();
-                        Long userId = Long.valueOf(claims.getSubject());
-                        List<String> roles = (List<String>) claims.get("roles");
-                        var auth = new UsernamePasswordAuthenticationToken(userId, null,
-                                roles.stream().map(SimpleGrantedAuthority::new).collect(Collectors.toList()));
-                        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    // invalid or revoked tokens are ignored; the request continues without authentication
+                    JwtAuthentication auth = verifiedTokenCache.resolve(c.getValue());
+                    if (auth != null && !revokedTokens.isRevoked(auth))
                         SecurityContextHolder.getContext().setAuthentication(auth);
-                    } catch (Exception e) {
-                        // ignore invalid token; continue without authentication
-                    }
                     break;
                 }
             }
         }
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
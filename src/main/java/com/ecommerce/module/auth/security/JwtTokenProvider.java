@@ -3,14 +3,23 @@ package com.ecommerce.module.auth.security;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.time.Instant;
 import java.util.Date;
 import java.util.List;
 
+/**
+ * Signs access tokens with the current ES256 key from {@link SigningKeyStore}, naming it in the
+ * {@code kid} header, and verifies them against the public key for that {@code kid}. Without a key
+ * store ({@code jwt.signing-algorithm=HS256}) tokens are signed with the shared secret. Tokens without
+ * a {@code kid} are HS256 tokens from before the switch and are accepted while
+ * {@code jwt.legacy-hs256} is on.
+ */
 @Component
 @RequiredArgsConstructor
 public class JwtTokenProvider {
@@ -21,25 +30,78 @@ public class JwtTokenProvider {
     @Value("${jwt.access-expiry-seconds}")
     private Long accessExpirySeconds;
 
+    @Value("${jwt.legacy-hs256:true}")
+    private boolean legacyHs256 = true;
+
+    private SigningKeyStore signingKeys;
+
+    // derived from accessSecret on first use; both are immutable and thread-safe
+    private volatile Key key;
+    private volatile JwtParser parser;
+
     private Key getKey() {
-        return Keys.hmacShaKeyFor(accessSecret.getBytes());
+        Key k = key;
+        if (k == null) {
+            k = Keys.hmacShaKeyFor(accessSecret.getBytes(StandardCharsets.UTF_8));
+            key = k;
+        }
+        return k;
+    }
+
+    private JwtParser getParser() {
+        JwtParser p = parser;
+        if (p == null) {
+            p = Jwts.parserBuilder().setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    String kid = header.getKeyId();
+                    if (kid == null) {
+                        if (signingKeys != null && !legacyHs256)
+                            throw new UnsupportedJwtException("Token has no key id");
+                        return getKey();
+                    }
+                    Key publicKey = signingKeys == null ? null : signingKeys.publicKey(kid);
+                    if (publicKey == null)
+                        throw new UnsupportedJwtException("Unknown key id");
+                    return publicKey;
+                }
+            }).build();
+            parser = p;
+        }
+        return p;
+    }
+
+    @Autowired(required = false)
+    void setSigningKeys(SigningKeyStore signingKeys) {
+        this.signingKeys = signingKeys;
     }
 
-    public String createAccessToken(Long userId, String email, List<String> roles) {
+    /**
+     * @param securityStamp the user's security stamp when the token is issued; bumping the stamp revokes it
+     */
+    public String createAccessToken(Long userId, String email, List<String> roles, long securityStamp) {
         Instant now = Instant.now();
         Instant exp = now.plusSeconds(accessExpirySeconds);
-        return Jwts.builder()
+        JwtBuilder builder = Jwts.builder();
+        if (signingKeys != null) {
+            SigningKeyStore.SigningKey signingKey = signingKeys.current();
+            builder.setHeaderParam(JwsHeader.KEY_ID, signingKey.kid())
+                    .signWith(signingKey.privateKey(), SignatureAlgorithm.ES256);
+        } else {
+            builder.signWith(getKey(), SignatureAlgorithm.HS256);
+        }
+        return builder
                 .setSubject(String.valueOf(userId))
                 .claim("email", email)
                 .claim("roles", roles)
+                .claim(JwtAuthentication.STAMP_CLAIM, securityStamp)
                 .setIssuedAt(Date.from(now))
                 .setExpiration(Date.from(exp))
                 .setId(java.util.UUID.randomUUID().toString())
-                .signWith(getKey(), SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Jws<Claims> parse(String token) throws JwtException {
-        return Jwts.parserBuilder().setSigningKey(getKey()).build().parseClaimsJws(token);
+        return getParser().parseClaimsJws(token);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.ecommerce.module.auth.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the password encoder. New hashes are {@code {bcrypt}$2a$<cost>$...}, so every stored hash names
+ * its algorithm and cost; hashes without a prefix (written before the prefix was introduced) are read as
+ * bcrypt, and {@link #labelled} adds the prefix so they can be rewritten without rehashing.
+ * <p>
+ * {@link PasswordEncoder#upgradeEncoding} is true for non-bcrypt hashes and for bcrypt hashes below the
+ * current cost. Hashes more than {@code overCostTolerance} above it are only rehashed downward when the
+ * cost is pinned by configuration: a calibrated cost can differ between nodes and restarts, and lowering
+ * the work factor of stored hashes on such a measurement is never worth it.
+ */
+@Slf4j
+public final class PasswordEncoders {
+
+    public static final String BCRYPT = "bcrypt";
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String CALIBRATION_PASSWORD = "calibration-password";
+
+    private PasswordEncoders() {
+    }
+
+    /**
+     * @param pinned whether {@code bcryptCost} was configured rather than calibrated; only then are hashes
+     *               above the cost rehashed down
+     */
+    public static PasswordEncoder delegating(int bcryptCost, int overCostTolerance, boolean pinned) {
+        BCryptPasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(bcryptCost,
+                pinned ? overCostTolerance : Integer.MAX_VALUE - bcryptCost);
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT, bcrypt);
+        encoders.put("pbkdf2@SpringSecurity_v5_8", Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(bcrypt);
+        return delegating;
+    }
+
+    /**
+     * The hash with a {@code {bcrypt}} prefix if it is a bare bcrypt hash, otherwise unchanged.
+     */
+    public static String labelled(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.startsWith("{"))
+            return encodedPassword;
+        return BCRYPT_COST.matcher(encodedPassword).find() ? "{" + BCRYPT + "}" + encodedPassword : encodedPassword;
+    }
+
+    /**
+     * Picks the highest bcrypt cost in {@code [minCost, maxCost]} whose hash takes at most {@code target}
+     * on this machine.
+     */
+    public static int calibrateBcryptCost(Duration target, int minCost, int maxCost) {
+        return calibrateBcryptCost(target, minCost, maxCost, PasswordEncoders::measureBcrypt);
+    }
+
+    /**
+     * Times {@code minCost} and extrapolates, as every extra step doubles the work; the chosen cost is then
+     * timed once and stepped down if the estimate was off.
+     */
+    public static int calibrateBcryptCost(Duration target, int minCost, int maxCost, IntToLongFunction nanosAtCost) {
+        long targetNanos = target.toNanos();
+        nanosAtCost.applyAsLong(minCost); // warm-up
+        long base = Long.MAX_VALUE;
+        for (int i = 0; i < 3; i++)
+            base = Math.min(base, nanosAtCost.applyAsLong(minCost));
+        int cost = minCost;
+        while (cost < maxCost && base << (cost + 1 - minCost) <= targetNanos)
+            cost++;
+        long measured = cost == minCost ? base : nanosAtCost.applyAsLong(cost);
+        if (cost > minCost && measured > targetNanos + targetNanos / 2)
+            cost--;
+        log.info("Calibrated bcrypt cost {} for a target of {} ms ({} ms measured)", cost, target.toMillis(),
+                measured / 1_000_000);
+        return cost;
+    }
+
+    private static long measureBcrypt(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * Also asks for a rehash when a hash is more expensive than the current cost plus the tolerance.
+     */
+    private static final class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        private final int cost;
+        private final int overCostTolerance;
+
+        CostAwareBCryptPasswordEncoder(int cost, int overCostTolerance) {
+            super(cost);
+            this.cost = cost;
+            this.overCostTolerance = overCostTolerance;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null)
+                return false;
+            Matcher m = BCRYPT_COST.matcher(encodedPassword);
+            if (!m.find())
+                return false;
+            int stored = Integer.parseInt(m.group(1));
+            return stored < cost || stored > cost + overCostTolerance;
+        }
+    }
+}
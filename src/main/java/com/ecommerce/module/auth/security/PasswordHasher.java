@@ -0,0 +1,144 @@
+package com.ecommerce.module.auth.security;
+
+import com.ecommerce.module.auth.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing on a CPU-sized pool with a bounded queue instead of on servlet threads.
+ * Each {@link Operation} may only hold its share of the pool's capacity, so a login flood cannot
+ * lock out registrations and vice versa; callers over their share, or that wait longer than
+ * {@code app.hashing.max-wait-ms}, get a 429 instead of queueing.
+ */
+@Component
+@RequiredArgsConstructor
+public class PasswordHasher {
+
+    public enum Operation {
+        LOGIN, REGISTER, RESET
+    }
+
+    private final PasswordEncoder passwordEncoder;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.hashing.threads:0}")
+    private int threads;
+
+    @Value("${app.hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${app.hashing.max-wait-ms:2000}")
+    private long maxWaitMs;
+
+    @Value("${app.hashing.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    @Value("${app.hashing.share.login:0.6}")
+    private double loginShare;
+
+    @Value("${app.hashing.share.register:0.3}")
+    private double registerShare;
+
+    @Value("${app.hashing.share.reset:0.1}")
+    private double resetShare;
+
+    private ThreadPoolExecutor executor;
+    private final Map<Operation, Semaphore> permits = new EnumMap<>(Operation.class);
+
+    @PostConstruct
+    void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hash-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        int capacity = poolSize + queueCapacity;
+        permits.put(Operation.LOGIN, new Semaphore(share(loginShare, capacity)));
+        permits.put(Operation.REGISTER, new Semaphore(share(registerShare, capacity)));
+        permits.put(Operation.RESET, new Semaphore(share(resetShare, capacity)));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public String encode(Operation op, CharSequence rawPassword) {
+        return submit(op, () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(Operation op, CharSequence rawPassword, String encodedPassword) {
+        return submit(op, () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Whether a hash that just matched should be re-encoded, see {@link PasswordEncoders}. A bare bcrypt
+     * hash at an acceptable cost does not need it; it only needs {@link PasswordEncoders#labelled}. Cheap,
+     * runs inline.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(PasswordEncoders.labelled(encodedPassword));
+    }
+
+    private <T> T submit(Operation op, Supplier<T> work) {
+        Semaphore semaphore = permits.get(op);
+        if (!semaphore.tryAcquire())
+            throw rejected(op);
+        try {
+            String tag = op.name().toLowerCase();
+            Timer queueWait = meterRegistry.timer("auth.hashing.queue.wait", "operation", tag);
+            Timer hashTime = meterRegistry.timer("auth.hashing.duration", "operation", tag);
+            long enqueuedAt = System.nanoTime();
+            Future<T> future;
+            try {
+                future = executor.submit(() -> {
+                    long startedAt = System.nanoTime();
+                    queueWait.record(startedAt - enqueuedAt, TimeUnit.NANOSECONDS);
+                    try {
+                        return work.get();
+                    } finally {
+                        hashTime.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                throw rejected(op);
+            }
+            try {
+                return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(false);
+                throw rejected(op);
+            } catch (InterruptedException e) {
+                future.cancel(false);
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while hashing password", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException re)
+                    throw re;
+                throw new IllegalStateException(e.getCause());
+            }
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    private TooManyRequestsException rejected(Operation op) {
+        meterRegistry.counter("auth.hashing.rejected", "operation", op.name().toLowerCase()).increment();
+        return new TooManyRequestsException("TOO_MANY_REQUESTS", "Server busy, retry later", retryAfterSeconds);
+    }
+
+    private static int share(double fraction, int capacity) {
+        return Math.max(1, (int) Math.ceil(fraction * capacity));
+    }
+}
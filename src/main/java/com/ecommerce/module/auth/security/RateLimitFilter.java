@@ -0,0 +1,185 @@
+package com.ecommerce.module.auth.security;
+
+import com.ecommerce.module.auth.util.CachedBodyHttpServletRequest;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Token-bucket rate limiting for the credential and mail endpoints, keyed by client IP and by the email
+ * in the request body. Bodies on these endpoints are small JSON documents, so at most 16 KiB is read
+ * whatever the declared length and anything larger is rejected with 413. Buckets live in Redis and are updated by one
+ * script call per key; once Redis rejects a key, this node remembers it until the bucket refills and
+ * rejects further requests for it without a round trip. Runs in the security filter chain, so it
+ * rejects before any hashing or repository work. Fails open if Redis is unavailable.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Limit(String dimension, int capacity, Duration period) {
+        double refillPerSecond() {
+            return capacity / (double) period.toSeconds();
+        }
+    }
+
+    private static final Map<String, List<Limit>> LIMITS = Map.of(
+            "/api/v1/auth/login", List.of(
+                    new Limit("ip", 30, Duration.ofMinutes(1)),
+                    new Limit("email", 10, Duration.ofMinutes(5))),
+            "/api/v1/auth/forgot-password", List.of(
+                    new Limit("ip", 10, Duration.ofMinutes(10)),
+                    new Limit("email", 3, Duration.ofHours(1))),
+            "/api/v1/auth/reset-password", List.of(
+                    new Limit("ip", 10, Duration.ofMinutes(10))),
+            "/api/v1/auth/resend-verification", List.of(
+                    new Limit("ip", 10, Duration.ofMinutes(10)),
+                    new Limit("email", 3, Duration.ofHours(1))));
+
+    private static final RedisScript<List> SCRIPT = RedisScript.of(new ClassPathResource("redis/rate-limit.lua"),
+            List.class);
+    private static final String KEY_PREFIX = "auth:rl:";
+    private static final int MAX_INSPECTED_BODY = 16 * 1024;
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisGuard redisGuard;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.local-max-entries:100000}")
+    private int localMaxEntries;
+
+    // key -> epoch millis until which Redis has already told us the key is out of tokens
+    private final ConcurrentHashMap<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equals(request.getMethod()) || !LIMITS.containsKey(path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String path = path(request);
+        if (request.getContentLengthLong() > MAX_INSPECTED_BODY) {
+            tooLarge(response);
+            return;
+        }
+        // chunked bodies have no declared length, so the read itself is bounded
+        CachedBodyHttpServletRequest req = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY);
+        if (req.isTruncated()) {
+            tooLarge(response);
+            return;
+        }
+        String email = emailOf(req.getBody());
+
+        long now = System.currentTimeMillis();
+        for (Limit limit : LIMITS.get(path)) {
+            String value = "ip".equals(limit.dimension()) ? request.getRemoteAddr() : email;
+            if (value == null)
+                continue;
+            long retryAfterMs = acquire(KEY_PREFIX + path + ":" + limit.dimension() + ":" + value, limit, now);
+            if (retryAfterMs > 0) {
+                meterRegistry.counter("auth.ratelimit.rejected", "endpoint", path, "dimension", limit.dimension())
+                        .increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMs + 999) / 1000));
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, "RATE_LIMITED", "Too many requests");
+                return;
+            }
+        }
+        filterChain.doFilter(req, response);
+    }
+
+    /**
+     * @return 0 when allowed, otherwise milliseconds until the next token
+     */
+    private long acquire(String key, Limit limit, long now) {
+        Long until = blockedUntil.get(key);
+        if (until != null) {
+            if (until > now)
+                return until - now;
+            blockedUntil.remove(key, until);
+        }
+        List<?> result;
+        try {
+            // while the circuit is open this fails immediately instead of waiting for a timeout
+            result = redisGuard.call("rate-limit", () -> redisTemplate.execute(SCRIPT, List.of(key),
+                    String.valueOf(limit.capacity()), String.valueOf(limit.refillPerSecond()), String.valueOf(now), "1"));
+        } catch (RuntimeException e) {
+            log.warn("Rate limiter unavailable, allowing request: {}", e.getMessage());
+            return 0;
+        }
+        if (result == null || ((Number) result.get(0)).longValue() == 1L)
+            return 0;
+        long retryAfterMs = Math.max(1, ((Number) result.get(1)).longValue());
+        remember(key, now + retryAfterMs, now);
+        return retryAfterMs;
+    }
+
+    private void remember(String key, long until, long now) {
+        if (blockedUntil.size() >= localMaxEntries) {
+            blockedUntil.values().removeIf(t -> t <= now);
+            if (blockedUntil.size() >= localMaxEntries)
+                return;
+        }
+        blockedUntil.put(key, until);
+    }
+
+    private String emailOf(byte[] body) {
+        if (body.length == 0)
+            return null;
+        try {
+            JsonNode email = objectMapper.readTree(body).get("email");
+            return email == null || !email.isTextual() ? null : email.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void tooLarge(HttpServletResponse response) throws IOException {
+        meterRegistry.counter("auth.ratelimit.oversized").increment();
+        reject(response, HttpStatus.PAYLOAD_TOO_LARGE, "PAYLOAD_TOO_LARGE", "Request body too large");
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String code, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "status", "error",
+                "error", Map.of("code", code, "message", message),
+                "meta", Map.of("timestamp", Instant.now().toString(), "requestId", "-")));
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,82 @@
+package com.ecommerce.module.auth.security;
+
+import com.ecommerce.module.auth.util.ScalableBloomFilter;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This node's in-memory copy of the access-token deny-list, kept in sync by {@link AccessTokenDenyList}.
+ * Revoked token ids go into a Bloom filter backed by an exact map of id to expiry: almost every lookup
+ * is a Bloom miss, and a hit is confirmed against the map. Users whose tokens were all revoked map to
+ * the security stamp they were revoked at: tokens carrying an older stamp, or none, are rejected. Stamps
+ * only change on the server, so unlike issue times they are immune to clock skew and to a token minted
+ * in the same second as the revocation.
+ * <p>
+ * Lookups take no locks. Writers and {@link #purgeExpired} serialize so a rebuilt filter never misses
+ * an id that is in the map.
+ */
+@Component
+public class RevokedTokenSet {
+
+    private static final long INITIAL_CAPACITY = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final Map<String, Long> tokenExpiry = new ConcurrentHashMap<>();
+    private record UserRevocation(long stamp, long revokedAt) {
+        UserRevocation merge(UserRevocation other) {
+            return new UserRevocation(Math.max(stamp, other.stamp), Math.max(revokedAt, other.revokedAt));
+        }
+    }
+
+    private final Map<Long, UserRevocation> userRevocations = new ConcurrentHashMap<>();
+    private volatile ScalableBloomFilter tokenFilter = newFilter();
+
+    public boolean isRevoked(JwtAuthentication auth) {
+        UserRevocation revocation = userRevocations.get(auth.getUserId());
+        if (revocation != null && (auth.getSecurityStamp() == null || auth.getSecurityStamp() < revocation.stamp()))
+            return true;
+        String jti = auth.getTokenId();
+        return jti != null && tokenFilter.mightContain(jti) && tokenExpiry.containsKey(jti);
+    }
+
+    public synchronized void addToken(String jti, long expiresAtEpochSecond) {
+        tokenExpiry.put(jti, expiresAtEpochSecond);
+        tokenFilter.put(jti);
+    }
+
+    /**
+     * Rejects the user's tokens issued under a stamp below {@code stamp}. {@code revokedAtEpochSecond} only
+     * decides when the entry can be dropped.
+     */
+    public void addUser(long userId, long stamp, long revokedAtEpochSecond) {
+        userRevocations.merge(userId, new UserRevocation(stamp, revokedAtEpochSecond), UserRevocation::merge);
+    }
+
+    /**
+     * Drops tokens past their expiry and user revocations older than any token still alive, then
+     * rebuilds the Bloom filter if anything was removed.
+     */
+    public synchronized void purgeExpired(long nowEpochSecond, long maxTokenLifetimeSeconds) {
+        boolean removed = tokenExpiry.values().removeIf(exp -> exp < nowEpochSecond);
+        userRevocations.values().removeIf(r -> r.revokedAt() < nowEpochSecond - maxTokenLifetimeSeconds);
+        if (removed) {
+            ScalableBloomFilter rebuilt = newFilter();
+            tokenExpiry.keySet().forEach(rebuilt::put);
+            tokenFilter = rebuilt;
+        }
+    }
+
+    public int tokenCount() {
+        return tokenExpiry.size();
+    }
+
+    public int userCount() {
+        return userRevocations.size();
+    }
+
+    private static ScalableBloomFilter newFilter() {
+        return new ScalableBloomFilter(INITIAL_CAPACITY, FALSE_POSITIVE_RATE);
+    }
+}
@@ -0,0 +1,273 @@
+package com.ecommerce.module.auth.security;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * ES256 signing keys shared by every node through the Redis hash {@code auth:jwt:keys}. Each field is
+ * a {@code kid}; its value is {@code activeFrom|encryptedPrivateKey|publicKey}, with the PKCS#8 private
+ * key sealed by AES-GCM under a key derived from {@code jwt.access-secret}.
+ * <p>
+ * Tokens are signed with the newest key whose {@code activeFrom} has passed. A replacement key is
+ * published {@code activation-delay} before it starts signing so JWKS caches pick it up first, and a
+ * superseded key is kept until every token it signed has expired. One node rotates at a time, guarded
+ * by a short Redis lock.
+ */
+@Component
+@ConditionalOnProperty(name = "jwt.signing-algorithm", havingValue = "ES256", matchIfMissing = true)
+@Slf4j
+public class SigningKeyStore {
+
+    private static final String KEYS_KEY = "auth:jwt:keys";
+    private static final String LOCK_KEY = "auth:jwt:keys:lock";
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    public record SigningKey(String kid, Instant activeFrom, PrivateKey privateKey, PublicKey publicKey) {
+    }
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final String accessSecret;
+    private final Duration rotationPeriod;
+    private final Duration activationDelay;
+    private final Duration tokenLifetime;
+
+    // kid -> public key, including kids this node has not loaded yet; misses are remembered too
+    private final LoadingCache<String, Optional<PublicKey>> publicKeys;
+    private volatile List<SigningKey> keys = List.of();
+    private volatile Jwks jwks = new Jwks("{\"keys\":[]}", "\"empty\"");
+
+    public record Jwks(String json, String etag) {
+    }
+
+    public SigningKeyStore(RedisTemplate<String, String> redisTemplate,
+            @Value("${jwt.access-secret}") String accessSecret,
+            @Value("${jwt.access-expiry-seconds}") long accessExpirySeconds,
+            @Value("${jwt.keys.rotation-period-seconds:604800}") long rotationPeriodSeconds,
+            @Value("${jwt.keys.activation-delay-seconds:600}") long activationDelaySeconds) {
+        this.redisTemplate = redisTemplate;
+        this.accessSecret = accessSecret;
+        this.tokenLifetime = Duration.ofSeconds(accessExpirySeconds);
+        this.rotationPeriod = Duration.ofSeconds(rotationPeriodSeconds);
+        this.activationDelay = Duration.ofSeconds(activationDelaySeconds);
+        this.publicKeys = Caffeine.newBuilder().maximumSize(1000).expireAfterWrite(Duration.ofMinutes(10))
+                .build(this::fetchPublicKey);
+    }
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    /** The key new tokens are signed with. */
+    public SigningKey current() {
+        Instant now = Instant.now();
+        SigningKey newest = null;
+        for (SigningKey k : keys) {
+            if (!k.activeFrom().isAfter(now))
+                newest = k;
+        }
+        if (newest == null) {
+            refresh();
+            if (keys.isEmpty())
+                throw new IllegalStateException("No JWT signing key available");
+            newest = keys.get(0);
+        }
+        return newest;
+    }
+
+    /** Public key for a {@code kid}, looked up in Redis the first time it is seen. */
+    public PublicKey publicKey(String kid) {
+        return kid == null ? null : publicKeys.get(kid).orElse(null);
+    }
+
+    public Jwks jwks() {
+        return jwks;
+    }
+
+    /**
+     * Reloads the key set and rotates or retires keys when due.
+     */
+    @Scheduled(fixedDelayString = "${jwt.keys.refresh-interval-ms:60000}")
+    public void refresh() {
+        try {
+            List<SigningKey> loaded = load();
+            Instant now = Instant.now();
+            SigningKey latest = loaded.isEmpty() ? null : loaded.get(loaded.size() - 1);
+            if (latest == null || !latest.activeFrom().plus(rotationPeriod).isAfter(now.plus(activationDelay))) {
+                rotate(latest == null ? now : now.plus(activationDelay));
+                loaded = load();
+            }
+            setKeys(retire(loaded, now));
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh JWT signing keys: {}", e.getMessage());
+        }
+    }
+
+    /** Publishes a new key that starts signing at {@code activeFrom}. */
+    void rotate(Instant activeFrom) {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofSeconds(30));
+        if (!Boolean.TRUE.equals(locked))
+            return; // another node is rotating
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            byte[] id = new byte[8];
+            RANDOM.nextBytes(id);
+            String kid = Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+            String value = activeFrom.getEpochSecond() + "|" + seal(pair.getPrivate().getEncoded()) + "|"
+                    + Base64.getEncoder().encodeToString(pair.getPublic().getEncoded());
+            redisTemplate.opsForHash().put(KEYS_KEY, kid, value);
+            log.info("Published JWT signing key {} active from {}", kid, activeFrom);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not generate JWT signing key", e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    private List<SigningKey> retire(List<SigningKey> loaded, Instant now) {
+        // a key is done once a newer key has been signing for longer than a token lives
+        List<SigningKey> kept = new ArrayList<>(loaded.size());
+        for (int i = 0; i < loaded.size(); i++) {
+            SigningKey k = loaded.get(i);
+            if (i + 1 < loaded.size() && loaded.get(i + 1).activeFrom().plus(tokenLifetime).isBefore(now)) {
+                redisTemplate.opsForHash().delete(KEYS_KEY, k.kid());
+                log.info("Retired JWT signing key {}", k.kid());
+            } else {
+                kept.add(k);
+            }
+        }
+        return kept;
+    }
+
+    private List<SigningKey> load() {
+        Map<Object, Object> raw = redisTemplate.opsForHash().entries(KEYS_KEY);
+        List<SigningKey> loaded = new ArrayList<>(raw.size());
+        for (Map.Entry<Object, Object> e : raw.entrySet()) {
+            try {
+                loaded.add(decode((String) e.getKey(), (String) e.getValue()));
+            } catch (GeneralSecurityException | RuntimeException ex) {
+                log.warn("Skipping unreadable JWT signing key {}: {}", e.getKey(), ex.getMessage());
+            }
+        }
+        loaded.sort(Comparator.comparing(SigningKey::activeFrom));
+        return loaded;
+    }
+
+    private void setKeys(List<SigningKey> loaded) {
+        keys = List.copyOf(loaded);
+        for (SigningKey k : loaded)
+            publicKeys.put(k.kid(), Optional.of(k.publicKey()));
+        jwks = buildJwks(loaded);
+    }
+
+    private Optional<PublicKey> fetchPublicKey(String kid) {
+        Object value = redisTemplate.opsForHash().get(KEYS_KEY, kid);
+        if (value == null)
+            return Optional.empty();
+        String[] parts = ((String) value).split("\\|");
+        try {
+            return Optional.of(publicKeyOf(parts[2]));
+        } catch (GeneralSecurityException e) {
+            return Optional.empty();
+        }
+    }
+
+    private SigningKey decode(String kid, String value) throws GeneralSecurityException {
+        String[] parts = value.split("\\|");
+        PrivateKey privateKey = KeyFactory.getInstance("EC").generatePrivate(new PKCS8EncodedKeySpec(unseal(parts[1])));
+        return new SigningKey(kid, Instant.ofEpochSecond(Long.parseLong(parts[0])), privateKey, publicKeyOf(parts[2]));
+    }
+
+    private static PublicKey publicKeyOf(String base64) throws GeneralSecurityException {
+        return KeyFactory.getInstance("EC").generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(base64)));
+    }
+
+    private static Jwks buildJwks(List<SigningKey> loaded) {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        for (int i = 0; i < loaded.size(); i++) {
+            ECPublicKey pub = (ECPublicKey) loaded.get(i).publicKey();
+            if (i > 0)
+                json.append(',');
+            json.append("{\"kty\":\"EC\",\"crv\":\"P-256\",\"use\":\"sig\",\"alg\":\"ES256\",\"kid\":\"")
+                    .append(loaded.get(i).kid()).append("\",\"x\":\"").append(coordinate(pub.getW().getAffineX()))
+                    .append("\",\"y\":\"").append(coordinate(pub.getW().getAffineY())).append("\"}");
+        }
+        String body = json.append("]}").toString();
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+            return new Jwks(body, "\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // unsigned, left-padded to the 32-byte field size as RFC 7518 requires
+    private static String coordinate(BigInteger value) {
+        byte[] raw = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int len = Math.min(raw.length, 32);
+        System.arraycopy(raw, raw.length - len, fixed, 32 - len, len);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+
+    private String seal(byte[] plain) throws GeneralSecurityException {
+        byte[] iv = new byte[12];
+        RANDOM.nextBytes(iv);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.ENCRYPT_MODE, wrappingKey(), new GCMParameterSpec(128, iv));
+        byte[] sealed = cipher.doFinal(plain);
+        byte[] out = new byte[iv.length + sealed.length];
+        System.arraycopy(iv, 0, out, 0, iv.length);
+        System.arraycopy(sealed, 0, out, iv.length, sealed.length);
+        return Base64.getEncoder().encodeToString(out);
+    }
+
+    private byte[] unseal(String base64) throws GeneralSecurityException {
+        byte[] in = Base64.getDecoder().decode(base64);
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, wrappingKey(), new GCMParameterSpec(128, in, 0, 12));
+        return cipher.doFinal(in, 12, in.length - 12);
+    }
+
+    private SecretKeySpec wrappingKey() throws GeneralSecurityException {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(("jwt-signing-keys:" + accessSecret).getBytes(StandardCharsets.UTF_8));
+        return new SecretKeySpec(digest, "AES");
+    }
+}
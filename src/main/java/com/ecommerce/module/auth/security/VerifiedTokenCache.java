@@ -0,0 +1,79 @@
+package com.ecommerce.module.auth.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Bounded cache of access tokens that already passed signature verification, keyed by a SHA-256
+ * digest of the token and evicted when the token expires.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Cache<String, JwtAuthentication> cache;
+
+    public VerifiedTokenCache(JwtTokenProvider jwtTokenProvider,
+            @Value("${jwt.verified-cache.max-entries:10000}") long maxEntries) {
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new Expiry<String, JwtAuthentication>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtAuthentication auth, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), auth.getExpiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtAuthentication auth, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtAuthentication auth, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Returns the authentication for a token, verifying and caching it on first sight.
+     *
+     * @return null when the token is invalid or expired
+     */
+    public JwtAuthentication resolve(String token) {
+        String key = digest(token);
+        JwtAuthentication auth = cache.getIfPresent(key);
+        if (auth != null)
+            return auth;
+        try {
+            auth = JwtAuthentication.from(jwtTokenProvider.parse(token).getBody());
+        } catch (RuntimeException e) {
+            return null;
+        }
+        cache.put(key, auth);
+        return auth;
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.module.auth.service;
+
+import com.ecommerce.module.auth.entity.AuthEventType;
+
+public interface AuthAuditService {
+    /**
+     * Queues an event without blocking; it is dropped, and counted, if the queue is full.
+     *
+     * @param userId 0 when the user is not known, e.g. a failed login
+     */
+    void record(AuthEventType type, long userId, String ip, String detail);
+}
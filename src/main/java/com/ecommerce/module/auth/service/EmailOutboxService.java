@@ -0,0 +1,10 @@
+package com.ecommerce.module.auth.service;
+
+import com.ecommerce.module.auth.entity.EmailTemplate;
+
+public interface EmailOutboxService {
+    /**
+     * Queues a mail for asynchronous delivery. Joins the caller's transaction when there is one.
+     */
+    void enqueue(EmailTemplate template, String to, String link);
+}
@@ -1,9 +1,20 @@
 package com.ecommerce.module.auth.service;
 
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
 import jakarta.mail.MessagingException;
 
+import java.util.List;
+import java.util.Map;
+
 public interface EmailService {
     void sendVerificationEmail(String to, String verificationLink) throws MessagingException;
 
     void sendPasswordResetEmail(String to, String resetLink) throws MessagingException;
-}
\ No newline at end of file
+
+    /**
+     * Renders and sends outbox messages over a single SMTP connection.
+     *
+     * @return ids of the messages that were not sent, mapped to the cause
+     */
+    Map<Long, Exception> sendBatch(List<EmailOutboxMessage> messages);
+}
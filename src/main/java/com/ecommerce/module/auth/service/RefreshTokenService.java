@@ -1,13 +1,49 @@
 package com.ecommerce.module.auth.service;
 
+import com.ecommerce.module.auth.dto.response.RotatedRefreshToken;
+import com.ecommerce.module.auth.dto.response.SessionInfo;
+
+import java.util.List;
+
 public interface RefreshTokenService {
-    String createRefreshToken(Long userId, String deviceInfo);
+    String createRefreshToken(Long userId, String email, List<String> roles, String deviceInfo);
 
     Long validateRefreshToken(String token);
 
+    /**
+     * {@link #validateRefreshToken} for many tokens in one round trip.
+     *
+     * @return the owner of each token, or null for invalid ones, in the order given
+     */
+    List<Long> validateRefreshTokens(List<String> tokens);
+
     void invalidate(String token);
 
     void invalidateAllForUser(Long userId);
 
-    String rotateRefreshToken(String oldToken, Long expectedUserId, String deviceInfo);
-}
\ No newline at end of file
+    /**
+     * Replaces a refresh token with a new one in a single round trip.
+     *
+     * @return null when the token is unknown, expired or was issued before the last security stamp change
+     */
+    RotatedRefreshToken rotateRefreshToken(String oldToken, String deviceInfo);
+
+    /**
+     * Marks every refresh record issued so far as stale. Call whenever a user's role or password changes.
+     *
+     * @return the new stamp
+     */
+    long bumpSecurityStamp(Long userId);
+
+    /**
+     * The user's current security stamp, which access tokens carry so a bump revokes them too.
+     */
+    long securityStamp(Long userId);
+
+    /**
+     * A page of the user's live sessions, latest expiry first.
+     */
+    List<SessionInfo> listSessions(Long userId, int page, int size);
+
+    long countSessions(Long userId);
+}
@@ -0,0 +1,14 @@
+package com.ecommerce.module.auth.service;
+
+import com.ecommerce.module.auth.dto.response.TokenIntrospection;
+
+import java.util.List;
+
+public interface TokenIntrospectionService {
+    /**
+     * Resolves a mix of access tokens (JWTs) and refresh tokens.
+     *
+     * @return one result per token, in the order given
+     */
+    List<TokenIntrospection> introspect(List<String> tokens);
+}
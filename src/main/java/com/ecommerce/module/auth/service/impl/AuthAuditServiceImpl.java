@@ -0,0 +1,119 @@
+package com.ecommerce.module.auth.service.impl;
+
+import com.ecommerce.module.auth.entity.AuthEventType;
+import com.ecommerce.module.auth.service.AuthAuditService;
+import com.ecommerce.module.auth.util.AuditRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Request threads drop events into an {@link AuditRingBuffer}; one writer thread drains it and appends
+ * them to {@code auth_audit_event} in JDBC batches. Auditing never slows down or fails a request: a
+ * full buffer drops events and a failed insert drops its batch, both counted.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthAuditServiceImpl implements AuthAuditService {
+
+    private static final String INSERT_SQL = "INSERT INTO auth_audit_event (event_type, user_id, ip, detail, occurred_at) "
+            + "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.audit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.audit.buffer-size:8192}")
+    private int bufferSize;
+
+    @Value("${app.audit.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.audit.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private AuditRingBuffer buffer;
+    private Thread writer;
+    private volatile boolean running;
+    private Counter writtenCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    void init() {
+        buffer = new AuditRingBuffer(bufferSize);
+        Gauge.builder("auth.audit.buffer.size", buffer, AuditRingBuffer::size).register(meterRegistry);
+        FunctionCounter.builder("auth.audit.dropped", buffer, AuditRingBuffer::dropped)
+                .description("Events dropped because the buffer was full").register(meterRegistry);
+        writtenCounter = meterRegistry.counter("auth.audit.written");
+        failedCounter = meterRegistry.counter("auth.audit.failed");
+        if (!enabled)
+            return;
+        running = true;
+        writer = new Thread(this::run, "auth-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    @Override
+    public void record(AuthEventType type, long userId, String ip, String detail) {
+        if (enabled)
+            buffer.offer(type, userId, ip, detail, System.currentTimeMillis());
+    }
+
+    private void run() {
+        List<Object[]> batch = new ArrayList<>(batchSize);
+        while (running || buffer.size() > 0) {
+            buffer.drain(slot -> batch.add(new Object[] { slot.type().name(),
+                    slot.userId() > 0 ? slot.userId() : null, truncate(slot.ip(), 45), truncate(slot.detail(), 255),
+                    new Timestamp(slot.timestamp()) }), batchSize);
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMs));
+                continue;
+            }
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Object[]> batch) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch,
+                    new int[] { Types.VARCHAR, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.TIMESTAMP });
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            failedCounter.increment(batch.size());
+            log.warn("Dropped {} audit events: {}", batch.size(), e.getMessage());
+        }
+    }
+
+    private static String truncate(String value, int max) {
+        return value == null || value.length() <= max ? value : value.substring(0, max);
+    }
+}
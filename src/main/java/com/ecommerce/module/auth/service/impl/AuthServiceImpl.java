@@ -2,71 +2,101 @@ package com.ecommerce.module.auth.service.impl;
 
 import com.ecommerce.module.auth.dto.request.RegisterRequest;
 import com.ecommerce.module.auth.dto.response.AuthResponse;
-import com.ecommerce.module.auth.entity.AuthOauthAccount;
+import com.ecommerce.module.auth.entity.AuthEventType;
+import com.ecommerce.module.auth.entity.EmailTemplate;
+import com.ecommerce.config.ReplicaRoutingDataSource;
 import com.ecommerce.module.auth.exception.BadRequestException;
 import com.ecommerce.module.auth.exception.ConflictException;
 import com.ecommerce.module.auth.exception.NotFoundException;
 import com.ecommerce.module.auth.exception.UnauthorizedException;
 import com.ecommerce.module.auth.repository.AuthOauthAccountRepository;
+import com.ecommerce.module.auth.security.AccessTokenDenyList;
+import com.ecommerce.module.auth.security.PasswordEncoders;
+import com.ecommerce.module.auth.security.PasswordHasher;
+import com.ecommerce.module.auth.security.PasswordHasher.Operation;
+import com.ecommerce.module.auth.service.AuthAuditService;
 import com.ecommerce.module.auth.service.AuthService;
-import com.ecommerce.module.auth.service.EmailService;
+import com.ecommerce.module.auth.service.EmailOutboxService;
 import com.ecommerce.module.auth.service.RefreshTokenService;
-import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.cache.UserProfile;
+import com.ecommerce.module.user.cache.RegisteredEmailFilter;
+import com.ecommerce.module.user.cache.UserProfileCache;
 import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.module.user.repository.projection.UserCredentials;
+import com.ecommerce.module.auth.util.OauthLinkCache;
 import com.ecommerce.module.auth.util.RedisHelper;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import jakarta.mail.MessagingException;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "auth.service", histogram = true)
 public class AuthServiceImpl implements AuthService {
 
     public final UserRepository userRepository;
     private final AuthOauthAccountRepository oauthRepo;
     private final RefreshTokenService refreshTokenService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutbox;
     private final RedisHelper redisHelper;
-
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(12);
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
+    private final UserProfileCache userProfileCache;
+    private final RegisteredEmailFilter registeredEmails;
+    private final AccessTokenDenyList accessTokenDenyList;
+    private final AuthAuditService authAudit;
+    private final OauthLinkCache oauthLinks;
 
     private static final long EMAIL_VERIFY_TTL = 60 * 60 * 24; // 24h
     private static final long PW_RESET_TTL = 30 * 60; // 30m
 
+    // anything else, ADMIN in particular, is only granted by an administrator
+    private static final Set<String> SELF_SERVICE_ROLES = Set.of("CUSTOMER", "VENDOR");
+
+    // read-only (no flush, no dirty checking) but kept on the primary, see ReplicaRoutingDataSource
+    private TransactionTemplate primaryRead;
+
+    @PostConstruct
+    void initPrimaryRead() {
+        primaryRead = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        primaryRead.setReadOnly(true);
+        primaryRead.setName(ReplicaRoutingDataSource.PRIMARY_READ);
+    }
+
     @Override
     public AuthResponse register(RegisterRequest request) {
-        if (userRepository.existsByEmail(request.getEmail())) {
+        requireSelfServiceRole(request.getRole());
+        // only an email the filter has seen can be a duplicate; check those before paying for the hash
+        if (registeredEmails.mightExist(request.getEmail()) && userRepository.existsByEmail(request.getEmail())) {
             throw new ConflictException("DUPLICATE_ERROR", "Email already registered");
         }
-        User user = User.builder()
-                .email(request.getEmail())
-                .fullName(request.getFullName())
-                .password(passwordEncoder.encode(request.getPassword()))
-                .role(request.getRole())
-                .isEmailVerified(false)
-                .isActive(true)
-                .build();
+        // hash before opening the transaction so no connection is held while waiting for the hasher
+        String passwordHash = passwordHasher.encode(Operation.REGISTER, request.getPassword());
+        Long userId = transactionTemplate.execute(status -> {
+            // ON CONFLICT closes the race between the check above and the insert
+            Long id = userRepository.insertIfAbsent(request.getFullName(), request.getEmail(), passwordHash,
+                    request.getRole(), false)
+                    .orElseThrow(() -> new ConflictException("DUPLICATE_ERROR", "Email already registered"));
 
-        user = userRepository.save(user);
-
-        String token = UUID.randomUUID().toString();
-        redisHelper.set("email_verify:" + token, user.getEmail(), EMAIL_VERIFY_TTL);
-        String link = buildVerifyLink(token);
-        try {
-            emailService.sendVerificationEmail(user.getEmail(), link);
-        } catch (MessagingException e) {
-            log.error("Failed to send verification email to {}", user.getEmail(), e);
-            throw new RuntimeException("INTERNAL_ERROR");
-        }
-        return new AuthResponse(user.getId(), user.getEmail(), user.getRole(), user.getFullName(), null);
+            String token = UUID.randomUUID().toString();
+            redisHelper.set("email_verify:" + token, request.getEmail(), EMAIL_VERIFY_TTL);
+            emailOutbox.enqueue(EmailTemplate.VERIFY_EMAIL, request.getEmail(), buildVerifyLink(token));
+            return id;
+        });
+        registeredEmails.add(request.getEmail());
+        userProfileCache.evict(userId, request.getEmail());
+        return new AuthResponse(userId, request.getEmail(), request.getRole(), request.getFullName(), null, 0);
     }
 
     @Override
@@ -75,96 +105,172 @@ public class AuthServiceImpl implements AuthService {
         String email = redisHelper.get(key);
         if (email == null)
             throw new UnauthorizedException("INVALID_TOKEN", "Token invalid or expired");
-        Optional<User> opt = userRepository.findByEmail(email);
-        if (opt.isEmpty())
-            throw new NotFoundException("USER_NOT_FOUND");
-        User user = opt.get();
-        user.setIsEmailVerified(true);
-        userRepository.save(user);
+        // one id lookup and one UPDATE on the primary; no entity is loaded or merged
+        Long userId = transactionTemplate.execute(status -> {
+            Long id = userRepository.findIdByEmail(email).orElseThrow(() -> new NotFoundException("USER_NOT_FOUND"));
+            userRepository.markEmailVerified(id, Instant.now());
+            return id;
+        });
+        userProfileCache.evict(userId, email);
         redisHelper.delete(key);
     }
 
     @Override
     public void resendVerification(String email) {
-        Optional<User> opt = userRepository.findByEmail(email);
+        if (!registeredEmails.mightExist(email))
+            return; // don't reveal
+        Optional<UserProfile> opt = userProfileCache.findByEmail(email);
         if (opt.isEmpty())
             return; // don't reveal
-        User user = opt.get();
-        if (Boolean.TRUE.equals(user.getIsEmailVerified())) {
+        UserProfile user = opt.get();
+        if (Boolean.TRUE.equals(user.isEmailVerified())) {
             throw new BadRequestException("ALREADY_VERIFIED", "Email already verified");
         }
         String token = UUID.randomUUID().toString();
         redisHelper.set("email_verify:" + token, email, EMAIL_VERIFY_TTL);
-        String link = buildVerifyLink(token);
-        try {
-            emailService.sendVerificationEmail(email, link);
-        } catch (MessagingException e) {
-            log.error("Failed to resend verification email to {}", email, e);
-            throw new RuntimeException("INTERNAL_ERROR");
-        }
+        emailOutbox.enqueue(EmailTemplate.VERIFY_EMAIL, email, buildVerifyLink(token));
     }
 
     @Override
     public AuthResponse login(String email, String password, String deviceInfo) {
-        Optional<User> opt = userRepository.findByEmail(email);
+        if (!registeredEmails.mightExist(email))
+            throw new UnauthorizedException("INVALID_CREDENTIALS", "Invalid credentials");
+        // read from the primary, so a login right after register or verify sees the write
+        Optional<UserCredentials> opt = primaryRead.execute(status -> userRepository.findCredentialsByEmail(email));
         if (opt.isEmpty())
             throw new UnauthorizedException("INVALID_CREDENTIALS", "Invalid credentials");
-        User user = opt.get();
-        if (!passwordEncoder.matches(password, user.getPassword()))
+        UserCredentials user = opt.get();
+        if (!passwordHasher.matches(Operation.LOGIN, password, user.password()))
             throw new UnauthorizedException("INVALID_CREDENTIALS", "Invalid credentials");
-        if (!Boolean.TRUE.equals(user.getIsEmailVerified()))
+        if (!Boolean.TRUE.equals(user.isEmailVerified()))
             throw new UnauthorizedException("EMAIL_NOT_VERIFIED", "Email not verified");
+        if (passwordHasher.needsRehash(user.password()))
+            rehash(user, password);
+        else if (!PasswordEncoders.labelled(user.password()).equals(user.password()))
+            replaceHash(user, PasswordEncoders.labelled(user.password()));
+
+        // read before the refresh record, so a concurrent bump revokes both tokens rather than neither
+        long stamp = refreshTokenService.securityStamp(user.id());
+        String refresh = refreshTokenService.createRefreshToken(user.id(), user.email(), List.of(user.role()),
+                deviceInfo);
+        return new AuthResponse(user.id(), user.email(), user.role(), user.fullName(), refresh, stamp);
+    }
 
-        String refresh = refreshTokenService.createRefreshToken(user.getId(), deviceInfo);
-        return new AuthResponse(user.getId(), user.getEmail(), user.getRole(), user.getFullName(), refresh);
+    private static void requireSelfServiceRole(String role) {
+        if (!SELF_SERVICE_ROLES.contains(role))
+            throw new BadRequestException("INVALID_ROLE", "Role must be CUSTOMER or VENDOR");
+    }
+
+    /**
+     * Re-encodes a password that just matched with the current algorithm and cost. Best effort: if the
+     * hasher is busy or the write fails, the old hash stays and the next login tries again.
+     */
+    private void rehash(UserCredentials user, String password) {
+        try {
+            replaceHash(user, passwordHasher.encode(Operation.LOGIN, password));
+        } catch (RuntimeException e) {
+            log.debug("Password rehash for user {} skipped: {}", user.id(), e.getMessage());
+        }
+    }
+
+    /**
+     * Swaps the stored hash if nobody changed it since it was read. Best effort, like {@link #rehash}.
+     */
+    private void replaceHash(UserCredentials user, String replacement) {
+        try {
+            Integer updated = transactionTemplate
+                    .execute(status -> userRepository.replacePasswordHash(user.id(), user.password(), replacement));
+            log.debug("Replaced password hash of user {} ({} row)", user.id(), updated);
+        } catch (RuntimeException e) {
+            log.debug("Password hash replacement for user {} skipped: {}", user.id(), e.getMessage());
+        }
     }
 
     @Override
     public AuthResponse oauthLogin(String provider, String providerUserId, String email, String requestedRole,
             String deviceInfo) {
-        Optional<AuthOauthAccount> map = oauthRepo.findByProviderAndProviderUserId(provider, providerUserId);
-        if (map.isPresent()) {
-            Long uid = map.get().getUserId();
-            User user = userRepository.findById(uid).orElseThrow(() -> new NotFoundException("USER_NOT_FOUND"));
-            String refresh = refreshTokenService.createRefreshToken(user.getId(), deviceInfo);
-            return new AuthResponse(user.getId(), user.getEmail(), user.getRole(), user.getFullName(), refresh);
+        if (requestedRole != null)
+            requireSelfServiceRole(requestedRole);
+        UserProfile user = linkedUser(provider, providerUserId);
+        if (user == null)
+            user = linkOnFirstLogin(provider, providerUserId, email, requestedRole);
+        // read before the refresh record, so a concurrent bump revokes both tokens rather than neither
+        long stamp = refreshTokenService.securityStamp(user.id());
+        String refresh = refreshTokenService.createRefreshToken(user.id(), user.email(), List.of(user.role()),
+                deviceInfo);
+        return new AuthResponse(user.id(), user.email(), user.role(), user.fullName(), refresh, stamp);
+    }
+
+    /**
+     * A returning user costs no query when the link is cached, otherwise one joined query.
+     *
+     * @return null when the provider account is not linked yet
+     */
+    private UserProfile linkedUser(String provider, String providerUserId) {
+        Long cached = oauthLinks.get(provider, providerUserId);
+        if (cached != null) {
+            Optional<UserProfile> user = userProfileCache.findById(cached);
+            if (user.isPresent())
+                return user.get();
+            oauthLinks.invalidate(provider, providerUserId);
         }
+        Optional<UserProfile> user = oauthRepo.findLinkedUser(provider, providerUserId);
+        if (user.isEmpty())
+            return null;
+        oauthLinks.put(provider, providerUserId, user.get().id());
+        return user.get();
+    }
 
-        Optional<User> byEmail = userRepository.findByEmail(email);
-        if (byEmail.isPresent()) {
-            User user = byEmail.get();
-            AuthOauthAccount a = AuthOauthAccount.builder().userId(user.getId()).provider(provider)
-                    .providerUserId(providerUserId).email(email).build();
-            oauthRepo.save(a);
-            String refresh = refreshTokenService.createRefreshToken(user.getId(), deviceInfo);
-            return new AuthResponse(user.getId(), user.getEmail(), user.getRole(), user.getFullName(), refresh);
+    /**
+     * Creates the user unless the email is registered and links the provider account, in one transaction.
+     * Both inserts are ON CONFLICT DO NOTHING, so concurrent callbacks for the same account end up on one
+     * user: a caller that loses the link race rolls back its own user insert and returns the winner's.
+     */
+    private UserProfile linkOnFirstLogin(String provider, String providerUserId, String email,
+            String requestedRole) {
+        String role = requestedRole == null ? "CUSTOMER" : requestedRole;
+        // OAuth-only accounts have no usable password; an empty hash never matches
+        OauthLink link = transactionTemplate.execute(status -> {
+            Optional<Long> inserted = userRepository.insertIfAbsent("", email, "", role, true);
+            Long userId = inserted.orElseGet(() -> userRepository.findIdByEmail(email)
+                    .orElseThrow(() -> new NotFoundException("USER_NOT_FOUND")));
+            if (oauthRepo.insertIfAbsent(userId, provider, providerUserId, email).isEmpty()) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return new OauthLink(userId, inserted.isPresent());
+        });
+
+        if (link == null) {
+            // the winner's link has just been committed; a replica may not have it yet
+            UserProfile winner = primaryRead.execute(status -> linkedUser(provider, providerUserId));
+            if (winner == null)
+                throw new ConflictException("OAUTH_LINK_CONFLICT", "Account is being linked, try again");
+            return winner;
+        }
+        oauthLinks.put(provider, providerUserId, link.userId());
+        if (link.created()) {
+            registeredEmails.add(email);
+            userProfileCache.evict(link.userId(), email);
+            return new UserProfile(link.userId(), email, role, "", true, true);
         }
+        return userProfileCache.findById(link.userId()).orElseThrow(() -> new NotFoundException("USER_NOT_FOUND"));
+    }
 
-        User user = User.builder().email(email).fullName("").role(requestedRole == null ? "CUSTOMER" : requestedRole)
-                .isEmailVerified(true).isActive(true).build();
-        user = userRepository.save(user);
-        AuthOauthAccount a = AuthOauthAccount.builder().userId(user.getId()).provider(provider)
-                .providerUserId(providerUserId).email(email).build();
-        oauthRepo.save(a);
-        String refresh = refreshTokenService.createRefreshToken(user.getId(), deviceInfo);
-        return new AuthResponse(user.getId(), user.getEmail(), user.getRole(), user.getFullName(), refresh);
+    private record OauthLink(Long userId, boolean created) {
     }
 
     @Override
     public void forgotPassword(String email) {
-        Optional<User> opt = userRepository.findByEmail(email);
+        if (!registeredEmails.mightExist(email))
+            return; // don't reveal
+        Optional<UserProfile> opt = userProfileCache.findByEmail(email);
         if (opt.isEmpty())
             return; // don't reveal
-        User user = opt.get();
+        UserProfile user = opt.get();
         String token = UUID.randomUUID().toString();
-        redisHelper.set("password_reset:" + token, user.getEmail(), PW_RESET_TTL);
-        String link = buildResetLink(token);
-        try {
-            emailService.sendPasswordResetEmail(user.getEmail(), link);
-        } catch (MessagingException e) {
-            log.error("Failed to send reset email to {}", email, e);
-            throw new RuntimeException("INTERNAL_ERROR");
-        }
+        redisHelper.set("password_reset:" + token, user.email(), PW_RESET_TTL);
+        emailOutbox.enqueue(EmailTemplate.PASSWORD_RESET, user.email(), buildResetLink(token));
     }
 
     @Override
@@ -173,10 +279,17 @@ public class AuthServiceImpl implements AuthService {
         String email = redisHelper.get(key);
         if (email == null)
             throw new UnauthorizedException("INVALID_TOKEN", "Token invalid or expired");
-        User user = userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("USER_NOT_FOUND"));
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
-        refreshTokenService.invalidateAllForUser(user.getId());
+        String passwordHash = passwordHasher.encode(Operation.RESET, newPassword);
+        Long userId = transactionTemplate.execute(status -> {
+            Long id = userRepository.findIdByEmail(email).orElseThrow(() -> new NotFoundException("USER_NOT_FOUND"));
+            userRepository.updatePassword(id, passwordHash, Instant.now());
+            return id;
+        });
+        userProfileCache.evict(userId, email);
+        long stamp = refreshTokenService.bumpSecurityStamp(userId);
+        refreshTokenService.invalidateAllForUser(userId);
+        accessTokenDenyList.revokeUser(userId, stamp);
+        authAudit.record(AuthEventType.PASSWORD_RESET, userId, null, null);
         redisHelper.delete(key);
     }
 
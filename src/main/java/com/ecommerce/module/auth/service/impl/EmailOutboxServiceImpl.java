@@ -0,0 +1,22 @@
+package com.ecommerce.module.auth.service.impl;
+
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
+import com.ecommerce.module.auth.entity.EmailTemplate;
+import com.ecommerce.module.auth.repository.EmailOutboxRepository;
+import com.ecommerce.module.auth.service.EmailOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    private final EmailOutboxRepository outboxRepository;
+
+    @Override
+    @Transactional
+    public void enqueue(EmailTemplate template, String to, String link) {
+        outboxRepository.save(EmailOutboxMessage.builder().template(template).recipient(to).link(link).build());
+    }
+}
@@ -0,0 +1,191 @@
+package com.ecommerce.module.auth.service.impl;
+
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
+import com.ecommerce.module.auth.repository.EmailOutboxRepository;
+import com.ecommerce.module.auth.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains {@code auth_email_outbox} in batches. Each worker locks a batch with SKIP LOCKED, leases it
+ * by pushing {@code next_attempt_at} forward, sends it over one SMTP connection and then records the
+ * outcome; failed messages are retried with exponential backoff and dead-lettered after
+ * {@code max-attempts}. A crashed worker's batch becomes due again once its lease runs out.
+ * <p>
+ * Sent and dead messages lose their link right away and are deleted after {@code retention-ms}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxWorker {
+
+    private final EmailOutboxRepository outboxRepository;
+    // resolved on first send so the mail stack can be initialized lazily
+    private final ObjectProvider<EmailService> emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mail.outbox.workers:2}")
+    private int workers;
+
+    @Value("${app.mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.mail.outbox.lease-ms:60000}")
+    private long leaseMs;
+
+    @Value("${app.mail.outbox.backoff-initial-ms:5000}")
+    private long backoffInitialMs;
+
+    @Value("${app.mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    @Value("${app.mail.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    @Value("${app.mail.outbox.retention-batch-size:1000}")
+    private int retentionBatchSize;
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+    private final AtomicLong depth = new AtomicLong();
+    private ThreadPoolTaskExecutor executor;
+    private Counter sentCounter;
+    private Counter retriedCounter;
+    private Counter deadCounter;
+    private Counter purgedCounter;
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mail-outbox-");
+        executor.initialize();
+
+        Gauge.builder("auth.mail.outbox.depth", depth, AtomicLong::get)
+                .description("Outbox messages waiting to be sent").register(meterRegistry);
+        sentCounter = meterRegistry.counter("auth.mail.outbox.sent");
+        retriedCounter = meterRegistry.counter("auth.mail.outbox.retried");
+        deadCounter = meterRegistry.counter("auth.mail.outbox.dead");
+        purgedCounter = meterRegistry.counter("auth.mail.outbox.purged");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        long pending = outboxRepository.countByStatus("PENDING");
+        depth.set(pending);
+        long wanted = Math.min(workers, (pending + batchSize - 1) / batchSize);
+        while (activeWorkers.get() < wanted) {
+            activeWorkers.incrementAndGet();
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Deletes sent and dead messages older than the retention, one batch per transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.retention-interval-ms:3600000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minusMillis(retentionMs);
+        int deleted;
+        try {
+            do {
+                deleted = transactionTemplate
+                        .execute(status -> outboxRepository.deleteFinishedBefore(cutoff, retentionBatchSize));
+                purgedCounter.increment(deleted);
+            } while (deleted == retentionBatchSize);
+        } catch (RuntimeException e) {
+            log.warn("Could not purge the email outbox: {}", e.getMessage());
+        }
+    }
+
+    private void drain() {
+        try {
+            List<EmailOutboxMessage> batch;
+            do {
+                batch = claim();
+                if (!batch.isEmpty())
+                    deliver(batch);
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Email outbox worker failed", e);
+        } finally {
+            activeWorkers.decrementAndGet();
+        }
+    }
+
+    private List<EmailOutboxMessage> claim() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<EmailOutboxMessage> due = outboxRepository.lockDue(now, batchSize);
+            for (EmailOutboxMessage m : due) {
+                m.setAttempts(m.getAttempts() + 1);
+                m.setNextAttemptAt(now.plusMillis(leaseMs));
+            }
+            return due;
+        });
+    }
+
+    private void deliver(List<EmailOutboxMessage> batch) {
+        Map<Long, Exception> failures = emailService.getObject().sendBatch(batch);
+        List<Long> sentIds = batch.stream().map(EmailOutboxMessage::getId).filter(id -> !failures.containsKey(id))
+                .toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            if (!sentIds.isEmpty())
+                outboxRepository.markSent(sentIds, now);
+            for (EmailOutboxMessage m : batch) {
+                Exception cause = failures.get(m.getId());
+                if (cause == null)
+                    continue;
+                m.setLastError(String.valueOf(cause.getMessage()));
+                if (m.getAttempts() >= maxAttempts) {
+                    m.setStatus("DEAD");
+                    m.setLink(null);
+                    deadCounter.increment();
+                    log.error("Giving up on outbox email {} to {} after {} attempts", m.getId(), m.getRecipient(),
+                            m.getAttempts(), cause);
+                } else {
+                    m.setNextAttemptAt(now.plus(backoff(m.getAttempts())));
+                    retriedCounter.increment();
+                    log.warn("Outbox email {} to {} failed, attempt {}: {}", m.getId(), m.getRecipient(),
+                            m.getAttempts(), cause.getMessage());
+                }
+                outboxRepository.save(m);
+            }
+        });
+        sentCounter.increment(sentIds.size());
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = backoffInitialMs << Math.min(attempts - 1, 30);
+        return Duration.ofMillis(delay <= 0 ? backoffMaxMs : Math.min(delay, backoffMaxMs));
+    }
+}
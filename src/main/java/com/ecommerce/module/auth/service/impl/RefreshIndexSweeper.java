@@ -0,0 +1,157 @@
+package com.ecommerce.module.auth.service.impl;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Walks the per-user refresh indexes with SCAN and drops members whose record has expired. Each tick
+ * issues one {@code SCAN cursor MATCH auth:user-* COUNT batch-size} and sweeps what it returned, so a full
+ * pass is spread over time instead of hitting Redis in one burst; a tick never loops until a match turns
+ * up. Indexes of active users are already trimmed on every write; this catches users who stopped signing
+ * in while some of their sessions were live.
+ * <p>
+ * The cursor and the start of the next pass live in Redis, and each tick runs under a short lock, so the
+ * nodes take turns advancing one shared pass instead of each scanning the whole keyspace. The lock holds a
+ * token unique to each acquisition and is only released by its holder.
+ * <p>
+ * Plain-set indexes left by earlier releases get the refresh TTL if they have none, after which every
+ * record they point to has expired too.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RefreshIndexSweeper {
+
+    private static final Duration LEGACY_TTL = Duration.ofDays(7);
+    private static final String LOCK_KEY = "auth:refresh-sweeper:lock";
+    // outlives the SCAN timeout plus a page of sweeps
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final Duration SCAN_TIMEOUT = Duration.ofSeconds(10);
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript
+            .of(new ClassPathResource("redis/lock-release.lua"), Long.class);
+    private static final String CURSOR_KEY = "auth:refresh-sweeper:cursor";
+    private static final String NEXT_PASS_KEY = "auth:refresh-sweeper:next-pass";
+    private static final byte[] MATCH = "auth:user-*".getBytes(StandardCharsets.UTF_8);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.refresh-sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.refresh-sweeper.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.refresh-sweeper.pass-interval-ms:3600000}")
+    private long passIntervalMs;
+
+    private Counter scannedCounter;
+    private Counter removedCounter;
+
+    @PostConstruct
+    public void init() {
+        scannedCounter = meterRegistry.counter("auth.refresh.sweeper.keys");
+        removedCounter = meterRegistry.counter("auth.refresh.sweeper.removed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.refresh-sweeper.interval-ms:1000}")
+    public void sweep() {
+        if (!enabled)
+            return;
+        try {
+            String token = UUID.randomUUID().toString();
+            Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL);
+            if (!Boolean.TRUE.equals(locked))
+                return; // another node is sweeping
+            try {
+                step();
+            } finally {
+                redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+            }
+        } catch (InvalidDataAccessApiUsageException e) {
+            // cluster connections do not support a cross-node SCAN; write-time trimming still applies
+            log.warn("Refresh index sweeper disabled: {}", e.getMessage());
+            enabled = false;
+        } catch (RuntimeException e) {
+            log.warn("Refresh index sweep failed, retrying on the next tick: {}", e.getMessage());
+        }
+    }
+
+    private void step() {
+        String cursor = redisTemplate.opsForValue().get(CURSOR_KEY);
+        if (cursor == null) {
+            String nextPass = redisTemplate.opsForValue().get(NEXT_PASS_KEY);
+            if (nextPass != null && System.currentTimeMillis() < Long.parseLong(nextPass))
+                return;
+            cursor = ScanCursor.INITIAL.getCursor();
+        }
+        KeyScanCursor<byte[]> page = scan(cursor);
+        long now = Instant.now().getEpochSecond();
+        for (byte[] key : page.getKeys())
+            sweepKey(new String(key, StandardCharsets.UTF_8), now);
+        if (page.isFinished()) {
+            redisTemplate.delete(CURSOR_KEY);
+            redisTemplate.opsForValue().set(NEXT_PASS_KEY, String.valueOf(System.currentTimeMillis() + passIntervalMs));
+        } else {
+            // a stale cursor is still valid for SCAN, so a lost update only revisits or skips one page
+            redisTemplate.opsForValue().set(CURSOR_KEY, page.getCursor(), Duration.ofMillis(passIntervalMs));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private KeyScanCursor<byte[]> scan(String cursor) {
+        return redisTemplate.execute((RedisCallback<KeyScanCursor<byte[]>>) conn -> {
+            if (conn instanceof RedisClusterConnection)
+                throw new InvalidDataAccessApiUsageException("SCAN over a cluster connection");
+            RedisKeyAsyncCommands<byte[], byte[]> commands = (RedisKeyAsyncCommands<byte[], byte[]>) conn
+                    .getNativeConnection();
+            try {
+                return commands.scan(ScanCursor.of(cursor), ScanArgs.Builder.matches(MATCH).limit(batchSize))
+                        .get(SCAN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new IllegalStateException("SCAN failed", e);
+            }
+        });
+    }
+
+    private void sweepKey(String key, long now) {
+        scannedCounter.increment();
+        if (key.startsWith(RefreshTokenServiceImpl.USER_INDEX_PREFIX)) {
+            Long removed = redisTemplate.opsForZSet().removeRangeByScore(key, Double.NEGATIVE_INFINITY, now);
+            if (removed != null && removed > 0)
+                removedCounter.increment(removed);
+        } else if (key.startsWith(RefreshTokenServiceImpl.LEGACY_USER_SET_PREFIX)) {
+            Long ttl = redisTemplate.getExpire(key);
+            if (ttl != null && ttl == -1)
+                redisTemplate.expire(key, LEGACY_TTL);
+        }
+    }
+}
@@ -1,99 +1,305 @@
 package com.ecommerce.module.auth.service.impl;
 
+import com.ecommerce.module.auth.dto.response.RotatedRefreshToken;
+import com.ecommerce.module.auth.dto.response.SessionInfo;
 import com.ecommerce.module.auth.service.RefreshTokenService;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Refresh tokens have the form {@code <userId>.<id>}. Every record, the per-user index and the security
+ * stamp are keyed with the {@code {userId}} hash tag so each operation touches a single cluster slot; writes
+ * run as one server-side script (EVALSHA, falling back to EVAL if the script cache was flushed) and
+ * validation reads the record and the stamp, served from the client-side cache when possible. Every call goes through
+ * {@link RedisGuard}, so an unavailable Redis fails fast with a 503.
+ * <p>
+ * A record is {@code userId|stamp|issuedAt|roles|device|email}: it carries the claims of the access
+ * token, so a refresh needs no database lookup, and the security stamp it was issued under, so bumping
+ * the stamp invalidates every record with stale claims.
+ * <p>
+ * The per-user index is a sorted set of token ids scored by expiry. Every write trims expired members
+ * and pushes the index TTL out to its newest record, and {@link RefreshIndexSweeper} trims the rest in
+ * the background, so the index only ever holds live sessions and can be listed directly.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "auth.refresh", histogram = true)
 public class RefreshTokenServiceImpl implements RefreshTokenService {
 
     private final RedisTemplate<String, String> redisTemplate;
+    private final TrackingRedisCache trackingCache;
+    private final RedisGuard redisGuard;
     private static final Duration TTL = Duration.ofDays(7);
     private static final String KEY_PREFIX = "auth:refresh:";
-    private static final String USER_SET_PREFIX = "auth:user-refreshs:";
+    public static final String USER_INDEX_PREFIX = "auth:user-sessions:";
+    /** Plain-set index written by earlier releases; read by invalidateAllForUser until it expires. */
+    public static final String LEGACY_USER_SET_PREFIX = "auth:user-refreshs:";
+    private static final String STAMP_PREFIX = "auth:stamp:";
+
+    private static final RedisScript<Long> CREATE_SCRIPT = script("refresh-create.lua", Long.class);
+    private static final RedisScript<List> ROTATE_SCRIPT = script("refresh-rotate.lua", List.class);
+    private static final RedisScript<Long> INVALIDATE_SCRIPT = script("refresh-invalidate.lua", Long.class);
+    private static final RedisScript<Long> INVALIDATE_ALL_SCRIPT = script("refresh-invalidate-all.lua", Long.class);
+
+    @PostConstruct
+    void preloadScripts() {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) conn -> {
+                for (RedisScript<?> s : List.of(CREATE_SCRIPT, ROTATE_SCRIPT, INVALIDATE_SCRIPT,
+                        INVALIDATE_ALL_SCRIPT))
+                    conn.scriptingCommands().scriptLoad(s.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            // scripts are loaded on first use instead
+            log.warn("Could not preload refresh token scripts: {}", e.getMessage());
+        }
+    }
 
     @Override
-    public String createRefreshToken(Long userId, String deviceInfo) {
-        String token = UUID.randomUUID().toString();
-        String key = KEY_PREFIX + token;
-        String value = userId + "|" + (deviceInfo == null ? "" : deviceInfo) + "|" + Instant.now().getEpochSecond();
-        redisTemplate.opsForValue().set(key, value, TTL);
-        redisTemplate.opsForSet().add(USER_SET_PREFIX + userId, token);
-        return token;
+    public String createRefreshToken(Long userId, String email, List<String> roles, String deviceInfo) {
+        String id = UUID.randomUUID().toString();
+        long now = Instant.now().getEpochSecond();
+        String claims = now + "|" + String.join(",", roles) + "|" + device(deviceInfo)
+                + "|" + email;
+        redisGuard.run("refresh.create", () -> redisTemplate.execute(CREATE_SCRIPT,
+                List.of(recordKey(userId, id), userSetKey(userId), stampKey(userId)), String.valueOf(userId), claims,
+                String.valueOf(TTL.toSeconds()), id, String.valueOf(now)));
+        return userId + "." + id;
     }
 
     @Override
     public Long validateRefreshToken(String token) {
-        String key = KEY_PREFIX + token;
-        String v = redisTemplate.opsForValue().get(key);
-        if (v == null)
+        Long owner = ownerOf(token);
+        if (owner == null)
+            return null;
+        // records never change in place and the stamp only by INCR, so client-side cached copies of both
+        // are valid until Redis invalidates them
+        String key = recordKey(owner, idOf(token));
+        return redisGuard.call("refresh.validate", () -> {
+            String record = trackingCache.get(key);
+            return record == null ? null : ownerInRecord(record, trackingCache.get(stampKey(owner)));
+        });
+    }
+
+    @Override
+    public List<Long> validateRefreshTokens(List<String> tokens) {
+        List<String> keys = new ArrayList<>(tokens.size());
+        List<Integer> slots = new ArrayList<>(tokens.size());
+        List<Long> owners = new ArrayList<>(tokens.size());
+        Map<Long, Integer> stampIndex = new LinkedHashMap<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            Long owner = ownerOf(tokens.get(i));
+            owners.add(null);
+            if (owner != null) {
+                keys.add(recordKey(owner, idOf(tokens.get(i))));
+                slots.add(i);
+                stampIndex.putIfAbsent(owner, stampIndex.size());
+            }
+        }
+        if (keys.isEmpty())
+            return owners;
+        // the records and each owner's stamp in one MGET
+        int records = keys.size();
+        for (Long owner : stampIndex.keySet())
+            keys.add(stampKey(owner));
+        List<String> values = redisGuard.call("refresh.validate-batch", () -> trackingCache.multiGet(keys));
+        for (int i = 0; i < slots.size(); i++) {
+            Long owner = ownerOf(tokens.get(slots.get(i)));
+            owners.set(slots.get(i), ownerInRecord(values.get(i), values.get(records + stampIndex.get(owner))));
+        }
+        return owners;
+    }
+
+    /**
+     * The owner in the record if it was issued under the current security stamp, {@code null} otherwise.
+     */
+    private static Long ownerInRecord(String record, String stamp) {
+        if (record == null)
+            return null;
+        // userId|stamp|issuedAt|roles|device|email
+        String[] fields = record.split("\\|", 3);
+        if (fields.length < 3 || !fields[1].equals(stamp == null ? "0" : stamp))
             return null;
         try {
-            return Long.valueOf(v.split("\\|", 3)[0]);
-        } catch (Exception e) {
+            return Long.valueOf(fields[0]);
+        } catch (NumberFormatException e) {
             return null;
         }
     }
 
     @Override
     public void invalidate(String token) {
-        String key = KEY_PREFIX + token;
-        String v = redisTemplate.opsForValue().get(key);
-        if (v != null) {
-            String uid = v.split("\\|", 3)[0];
-            redisTemplate.opsForSet().remove(USER_SET_PREFIX + uid, token);
-        }
-        redisTemplate.delete(key);
+        Long owner = ownerOf(token);
+        if (owner == null)
+            return;
+        String id = idOf(token);
+        redisGuard.run("refresh.invalidate",
+                () -> redisTemplate.execute(INVALIDATE_SCRIPT, List.of(recordKey(owner, id), userSetKey(owner)), id));
     }
 
     @Override
     public void invalidateAllForUser(Long userId) {
-        Set<String> tokens = redisTemplate.opsForSet().members(USER_SET_PREFIX + userId);
-        if (tokens != null) {
-            for (String t : tokens)
-                redisTemplate.delete(KEY_PREFIX + t);
-        }
-        redisTemplate.delete(USER_SET_PREFIX + userId);
+        redisGuard.run("refresh.invalidate-all", () -> redisTemplate.execute(INVALIDATE_ALL_SCRIPT,
+                List.of(userSetKey(userId), legacyUserSetKey(userId)), recordPrefix(userId)));
     }
 
     @Override
-    public String rotateRefreshToken(String oldToken, Long expectedUserId, String deviceInfo) {
-        String oldKey = KEY_PREFIX + oldToken;
-        String v = redisTemplate.opsForValue().get(oldKey);
-        if (v == null)
+    public RotatedRefreshToken rotateRefreshToken(String oldToken, String deviceInfo) {
+        Long owner = ownerOf(oldToken);
+        if (owner == null)
             return null;
-        String[] parts = v.split("\\|", 3);
-        Long uid = Long.valueOf(parts[0]);
-        if (!uid.equals(expectedUserId)) {
-            invalidate(oldToken);
+
+        String oldId = idOf(oldToken);
+        String newId = UUID.randomUUID().toString();
+        List<?> result = redisGuard.call("refresh.rotate", () -> redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(recordKey(owner, oldId), recordKey(owner, newId), userSetKey(owner), stampKey(owner)),
+                String.valueOf(owner), String.valueOf(TTL.toSeconds()), oldId, newId,
+                String.valueOf(Instant.now().getEpochSecond()), deviceInfo == null ? "" : device(deviceInfo)));
+        long status = result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        if (status != 1L) {
+            if (status == -1L)
+                log.warn("Refresh token owner mismatch for user {}", owner);
+            else if (status == -2L)
+                log.info("Rejected refresh token for user {} issued under an old security stamp", owner);
             return null;
         }
+        // userId|stamp|issuedAt|roles|device|email
+        String[] record = ((String) result.get(1)).split("\\|", 6);
+        List<String> roles = record[3].isEmpty() ? List.of() : List.of(record[3].split(","));
+        return new RotatedRefreshToken(owner + "." + newId, owner, record[5], roles, Long.parseLong(record[1]));
+    }
+
+    @Override
+    public long bumpSecurityStamp(Long userId) {
+        Long stamp = redisGuard.call("refresh.bump-stamp", () -> redisTemplate.opsForValue().increment(stampKey(userId)));
+        return stamp == null ? 0 : stamp;
+    }
 
-        String newToken = UUID.randomUUID().toString();
-        String newKey = KEY_PREFIX + newToken;
-        String newVal = uid + "|" + (deviceInfo == null ? "" : deviceInfo) + "|" + Instant.now().getEpochSecond();
+    @Override
+    public long securityStamp(Long userId) {
+        String stamp = redisGuard.call("refresh.stamp", () -> trackingCache.get(stampKey(userId)));
+        return stamp == null ? 0 : Long.parseLong(stamp);
+    }
+
+    @Override
+    public List<SessionInfo> listSessions(Long userId, int page, int size) {
+        long now = Instant.now().getEpochSecond();
+        Set<ZSetOperations.TypedTuple<String>> ids = redisGuard.call("sessions.list",
+                () -> redisTemplate.opsForZSet().reverseRangeByScoreWithScores(userSetKey(userId), now + 1,
+                        Double.POSITIVE_INFINITY, (long) page * size, size));
+        if (ids == null || ids.isEmpty())
+            return List.of();
 
-        // Use MULTI/EXEC
-        var conn = redisTemplate.getConnectionFactory().getConnection();
+        // the stamp and every record share the {userId} slot, so this is a single MGET
+        List<String> keys = new ArrayList<>(ids.size() + 1);
+        keys.add(stampKey(userId));
+        for (ZSetOperations.TypedTuple<String> id : ids)
+            keys.add(recordKey(userId, id.getValue()));
+        List<String> values = redisGuard.call("sessions.records", () -> redisTemplate.opsForValue().multiGet(keys));
+        if (values == null)
+            return List.of();
+        String stamp = values.get(0) == null ? "0" : values.get(0);
+
+        List<SessionInfo> sessions = new ArrayList<>(ids.size());
+        int i = 1;
+        for (ZSetOperations.TypedTuple<String> id : ids) {
+            String value = values.get(i++);
+            if (value == null)
+                continue;
+            // userId|stamp|issuedAt|roles|device|email
+            String[] record = value.split("\\|", 6);
+            if (record.length < 6 || !record[1].equals(stamp))
+                continue;
+            sessions.add(new SessionInfo(sessionId(id.getValue()), record[4],
+                    Instant.ofEpochSecond(Long.parseLong(record[2])),
+                    Instant.ofEpochSecond(id.getScore().longValue())));
+        }
+        return sessions;
+    }
+
+    @Override
+    public long countSessions(Long userId) {
+        Long count = redisGuard.call("sessions.count", () -> redisTemplate.opsForZSet().count(userSetKey(userId),
+                Instant.now().getEpochSecond() + 1, Double.POSITIVE_INFINITY));
+        return count == null ? 0 : count;
+    }
+
+    private static String sessionId(String tokenId) {
         try {
-            conn.multi();
-            redisTemplate.opsForValue().set(newKey, newVal, TTL);
-            redisTemplate.opsForSet().add(USER_SET_PREFIX + uid, newToken);
-            redisTemplate.delete(oldKey);
-            conn.exec();
-        } finally {
-            conn.close();
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(tokenId.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
         }
-        redisTemplate.opsForSet().remove(USER_SET_PREFIX + uid, oldToken);
-        return newToken;
     }
-}
\ No newline at end of file
+
+    private static String device(String deviceInfo) {
+        return deviceInfo == null ? "" : deviceInfo.replace('|', '/');
+    }
+
+    private static String recordPrefix(Long userId) {
+        return KEY_PREFIX + "{" + userId + "}:";
+    }
+
+    private static String recordKey(Long userId, String id) {
+        return recordPrefix(userId) + id;
+    }
+
+    private static String userSetKey(Long userId) {
+        return USER_INDEX_PREFIX + "{" + userId + "}";
+    }
+
+    private static String legacyUserSetKey(Long userId) {
+        return LEGACY_USER_SET_PREFIX + "{" + userId + "}";
+    }
+
+    private static String stampKey(Long userId) {
+        return STAMP_PREFIX + "{" + userId + "}";
+    }
+
+    private static Long ownerOf(String token) {
+        if (token == null)
+            return null;
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1)
+            return null;
+        try {
+            return Long.valueOf(token.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static String idOf(String token) {
+        return token.substring(token.indexOf('.') + 1);
+    }
+
+    private static <T> RedisScript<T> script(String name, Class<T> resultType) {
+        return RedisScript.of(new ClassPathResource("redis/" + name), resultType);
+    }
+}
@@ -1,8 +1,13 @@
 package com.ecommerce.module.auth.service.impl;
 
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
 import com.ecommerce.module.auth.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
@@ -11,6 +16,11 @@ import org.thymeleaf.spring6.SpringTemplateEngine;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -19,32 +29,105 @@ public class SpringEmailService implements EmailService {
 
     private final JavaMailSender mailSender;
     private final SpringTemplateEngine thymeleaf;
+    private final MeterRegistry meterRegistry;
 
     @Override
     public void sendVerificationEmail(String to, String verificationLink) throws MessagingException {
+        send(verificationMessage(to, verificationLink));
+        log.info("Sent verification email to {}", to);
+    }
+
+    @Override
+    public void sendPasswordResetEmail(String to, String resetLink) throws MessagingException {
+        send(passwordResetMessage(to, resetLink));
+        log.info("Sent password reset email to {}", to);
+    }
+
+    @Override
+    public Map<Long, Exception> sendBatch(List<EmailOutboxMessage> messages) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, Long> ids = new IdentityHashMap<>();
+        List<MimeMessage> rendered = new ArrayList<>(messages.size());
+        for (EmailOutboxMessage m : messages) {
+            try {
+                MimeMessage mime = switch (m.getTemplate()) {
+                    case VERIFY_EMAIL -> verificationMessage(m.getRecipient(), m.getLink());
+                    case PASSWORD_RESET -> passwordResetMessage(m.getRecipient(), m.getLink());
+                };
+                ids.put(mime, m.getId());
+                rendered.add(mime);
+            } catch (MessagingException | RuntimeException e) {
+                failures.put(m.getId(), e);
+            }
+        }
+        if (rendered.isEmpty())
+            return failures;
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            // JavaMailSenderImpl keeps one transport open for the whole array
+            mailSender.send(rendered.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            outcome = "failure";
+            if (e.getFailedMessages().isEmpty()) {
+                rendered.forEach(mime -> failures.put(ids.get(mime), e));
+            } else {
+                e.getFailedMessages().forEach((mime, cause) -> failures.put(ids.get(mime), cause));
+            }
+        } catch (MailException e) {
+            outcome = "failure";
+            rendered.forEach(mime -> failures.put(ids.get(mime), e));
+        } finally {
+            sample.stop(sendTimer("batch", outcome));
+        }
+        log.info("Sent {} of {} outbox emails", messages.size() - failures.size(), messages.size());
+        return failures;
+    }
+
+    private MimeMessage verificationMessage(String to, String verificationLink) throws MessagingException {
         Context ctx = new Context();
         ctx.setVariable("verificationLink", verificationLink);
         ctx.setVariable("recipient", to);
-        String html = thymeleaf.process("verify-email.html", ctx);
-        sendHtml(to, "Verify your email", html);
+        String html = render("verify-email.html", ctx);
+        return htmlMessage(to, "Verify your email", html);
     }
 
-    @Override
-    public void sendPasswordResetEmail(String to, String resetLink) throws MessagingException {
+    private MimeMessage passwordResetMessage(String to, String resetLink) throws MessagingException {
         Context ctx = new Context();
         ctx.setVariable("resetLink", resetLink);
         ctx.setVariable("recipient", to);
-        String html = thymeleaf.process("reset-password.html", ctx);
-        sendHtml(to, "Reset your password", html);
+        String html = render("reset-password.html", ctx);
+        return htmlMessage(to, "Reset your password", html);
+    }
+
+    private String render(String template, Context ctx) {
+        return Timer.builder("mail.render").tag("template", template).publishPercentileHistogram()
+                .register(meterRegistry).record(() -> thymeleaf.process(template, ctx));
+    }
+
+    private void send(MimeMessage message) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            mailSender.send(message);
+            outcome = "success";
+        } finally {
+            sample.stop(sendTimer("single", outcome));
+        }
+    }
+
+    private Timer sendTimer(String mode, String outcome) {
+        return Timer.builder("mail.send").tag("mode", mode).tag("outcome", outcome).publishPercentileHistogram()
+                .register(meterRegistry);
     }
 
-    private void sendHtml(String to, String subject, String html) throws MessagingException {
+    private MimeMessage htmlMessage(String to, String subject, String html) throws MessagingException {
         MimeMessage message = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
         helper.setTo(to);
         helper.setSubject(subject);
         helper.setText(html, true);
-        mailSender.send(message);
-        log.info("Sent '{}' to {}", subject, to);
+        return message;
     }
-}
\ No newline at end of file
+}
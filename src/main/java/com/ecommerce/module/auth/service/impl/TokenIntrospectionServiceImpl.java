@@ -0,0 +1,100 @@
+package com.ecommerce.module.auth.service.impl;
+
+import com.ecommerce.module.auth.dto.response.TokenIntrospection;
+import com.ecommerce.module.auth.exception.BadRequestException;
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.security.RevokedTokenSet;
+import com.ecommerce.module.auth.security.VerifiedTokenCache;
+import com.ecommerce.module.auth.service.RefreshTokenService;
+import com.ecommerce.module.auth.service.TokenIntrospectionService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Access tokens are verified in memory through {@link VerifiedTokenCache} and checked against the
+ * deny-list; refresh tokens are looked up together with one MGET. A token is treated as a JWT when it
+ * has three dot-separated parts, refresh tokens have two.
+ */
+@Service
+@RequiredArgsConstructor
+@Timed(value = "auth.introspect", histogram = true)
+public class TokenIntrospectionServiceImpl implements TokenIntrospectionService {
+
+    private static final String ACCESS = "access";
+    private static final String REFRESH = "refresh";
+
+    private final RefreshTokenService refreshTokenService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final RevokedTokenSet revokedTokens;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.introspection.max-tokens:500}")
+    private int maxTokens;
+
+    @Value("${app.introspection.max-token-length:4096}")
+    private int maxTokenLength;
+
+    @Override
+    public List<TokenIntrospection> introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty())
+            throw new BadRequestException("NO_TOKENS", "tokens must not be empty");
+        if (tokens.size() > maxTokens)
+            throw new BadRequestException("TOO_MANY_TOKENS", "At most " + maxTokens + " tokens per request");
+        DistributionSummary.builder("auth.introspect.batch").register(meterRegistry).record(tokens.size());
+
+        TokenIntrospection[] results = new TokenIntrospection[tokens.size()];
+        List<String> refreshTokens = new ArrayList<>();
+        List<Integer> refreshSlots = new ArrayList<>();
+        for (int i = 0; i < tokens.size(); i++) {
+            String token = tokens.get(i);
+            if (token == null || token.isEmpty() || token.length() > maxTokenLength)
+                results[i] = inactive(REFRESH);
+            else if (isJwt(token))
+                results[i] = introspectAccess(token);
+            else {
+                refreshTokens.add(token);
+                refreshSlots.add(i);
+            }
+        }
+
+        if (!refreshTokens.isEmpty()) {
+            List<Long> owners = refreshTokenService.validateRefreshTokens(refreshTokens);
+            for (int i = 0; i < refreshSlots.size(); i++) {
+                Long owner = owners.get(i);
+                results[refreshSlots.get(i)] = owner == null ? inactive(REFRESH)
+                        : count(new TokenIntrospection(REFRESH, true, owner, null));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private TokenIntrospection introspectAccess(String token) {
+        JwtAuthentication auth = verifiedTokenCache.resolve(token);
+        if (auth == null || revokedTokens.isRevoked(auth))
+            return inactive(ACCESS);
+        return count(new TokenIntrospection(ACCESS, true, auth.getUserId(), auth.getExpiresAt()));
+    }
+
+    private TokenIntrospection inactive(String type) {
+        return count(new TokenIntrospection(type, false, null, null));
+    }
+
+    private TokenIntrospection count(TokenIntrospection result) {
+        meterRegistry.counter("auth.introspect.tokens", "type", result.getType(), "active",
+                String.valueOf(result.isActive())).increment();
+        return result;
+    }
+
+    private static boolean isJwt(String token) {
+        int first = token.indexOf('.');
+        return first > 0 && token.indexOf('.', first + 1) > first;
+    }
+}
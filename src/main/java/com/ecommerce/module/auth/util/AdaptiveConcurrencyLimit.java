@@ -0,0 +1,102 @@
+package com.ecommerce.module.auth.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows observed latency, in the style of a gradient limiter. Two moving
+ * averages of the response time are kept: a short one that reacts within a few requests and a long one
+ * that acts as the no-load baseline (it follows the short one down at once and up only slowly). Each
+ * completed request moves the limit towards {@code limit * gradient + sqrt(limit)}, where the gradient
+ * is {@code tolerance * baseline / short}, clamped to [0.5, 1]: while latency stays near the baseline the
+ * limit grows by about its square root, and once requests start queueing it shrinks in proportion.
+ * Requests that failed with an overload (dropped) cut the limit multiplicatively, AIMD style.
+ * <p>
+ * The limit only grows while at least half of it is in use, so a quiet endpoint does not drift to its
+ * maximum and then admit a burst it cannot handle.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double LONG_ALPHA = 1.0 / 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    // written under this, read without it
+    private volatile double limit;
+    private volatile boolean congested;
+    // guarded by this
+    private double shortRtt;
+    private double longRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance,
+            double smoothing, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    /**
+     * Takes a slot if fewer than {@code share} of the limit (at least one) are in use. Every successful
+     * call must be followed by {@link #release}.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit * share));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed)
+                return false;
+            if (inflight.compareAndSet(current, current + 1))
+                return true;
+        }
+    }
+
+    public void release(long rttNanos, boolean dropped) {
+        int before = inflight.getAndDecrement();
+        update(rttNanos, before, dropped);
+    }
+
+    private synchronized void update(long rttNanos, int inflightBefore, boolean dropped) {
+        if (dropped) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+        double rtt = Math.max(1, rttNanos);
+        if (shortRtt == 0) {
+            shortRtt = longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_ALPHA;
+        longRtt = Math.min(shortRtt, longRtt + (shortRtt - longRtt) * LONG_ALPHA);
+        congested = shortRtt > tolerance * longRtt;
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double target = limit * gradient + Math.sqrt(limit);
+        if (target > limit && inflightBefore < limit / 2)
+            return;
+        double next = limit + (target - limit) * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inflight() {
+        return inflight.get();
+    }
+
+    /**
+     * Whether recent latency is above the baseline by more than the tolerance, i.e. requests are queueing.
+     */
+    public boolean congested() {
+        return congested;
+    }
+}
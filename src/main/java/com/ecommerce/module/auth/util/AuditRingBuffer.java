@@ -0,0 +1,115 @@
+package com.ecommerce.module.auth.util;
+
+import com.ecommerce.module.auth.entity.AuthEventType;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer, single-consumer ring of preallocated event slots. Producers claim a sequence
+ * with a CAS, fill the slot in place and publish it by writing the sequence into the slot, so recording
+ * an event allocates nothing and never blocks: when the ring is full the event is dropped and counted.
+ * The consumer reads slots in sequence order and stops at the first one not yet published.
+ */
+public final class AuditRingBuffer {
+
+    public static final class Slot {
+        private volatile long sequence = -1;
+        private AuthEventType type;
+        private long userId;
+        private long timestamp;
+        private String ip;
+        private String detail;
+
+        public AuthEventType type() {
+            return type;
+        }
+
+        /** 0 when the event is not tied to a known user. */
+        public long userId() {
+            return userId;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public String ip() {
+            return ip;
+        }
+
+        public String detail() {
+            return detail;
+        }
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    public AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        slots = new Slot[size];
+        for (int i = 0; i < size; i++)
+            slots[i] = new Slot();
+        mask = size - 1;
+    }
+
+    /**
+     * @return false when the ring was full and the event was dropped
+     */
+    public boolean offer(AuthEventType type, long userId, String ip, String detail, long timestamp) {
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head.get() >= slots.length) {
+                dropped.increment();
+                return false;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        Slot slot = slots[(int) (seq & mask)];
+        slot.type = type;
+        slot.userId = userId;
+        slot.timestamp = timestamp;
+        slot.ip = ip;
+        slot.detail = detail;
+        slot.sequence = seq;
+        return true;
+    }
+
+    /**
+     * Hands up to {@code max} published events to {@code consumer}, oldest first. Slots are reused once
+     * this returns, so the consumer must copy what it keeps. Only one thread may drain.
+     */
+    public int drain(Consumer<Slot> consumer, int max) {
+        long seq = head.get();
+        int count = 0;
+        while (count < max) {
+            Slot slot = slots[(int) (seq & mask)];
+            if (slot.sequence != seq)
+                break;
+            consumer.accept(slot);
+            slot.ip = null;
+            slot.detail = null;
+            seq++;
+            count++;
+        }
+        head.lazySet(seq);
+        return count;
+    }
+
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.module.auth.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-node cache of {@code (provider, providerUserId) -> userId}. Links are never re-pointed once
+ * created, so entries need no cross-node invalidation; the TTL only bounds how long a link to a deleted
+ * user is remembered. Hit rate is exported as {@code auth.oauth.links}.
+ */
+@Component
+public class OauthLinkCache {
+
+    private final Cache<String, Long> links;
+
+    public OauthLinkCache(MeterRegistry meterRegistry,
+            @Value("${app.oauth.link-cache.max-entries:50000}") long maxEntries,
+            @Value("${app.oauth.link-cache.ttl-minutes:60}") long ttlMinutes) {
+        links = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, links, "auth.oauth.links");
+    }
+
+    public Long get(String provider, String providerUserId) {
+        return links.getIfPresent(key(provider, providerUserId));
+    }
+
+    public void put(String provider, String providerUserId, Long userId) {
+        links.put(key(provider, providerUserId), userId);
+    }
+
+    public void invalidate(String provider, String providerUserId) {
+        links.invalidate(key(provider, providerUserId));
+    }
+
+    // provider names are fixed identifiers without ':'
+    private static String key(String provider, String providerUserId) {
+        return provider + ':' + providerUserId;
+    }
+}
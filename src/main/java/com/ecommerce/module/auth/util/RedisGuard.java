@@ -0,0 +1,185 @@
+package com.ecommerce.module.auth.util;
+
+import com.ecommerce.module.auth.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Bulkhead and circuit breaker around Redis calls. At most {@code max-concurrent} threads may be inside
+ * Redis at once, so a slow Redis ties up a bounded number of request threads rather than all of them.
+ * When at least {@code failure-rate-percent} of the last {@code window-size} calls failed, the circuit
+ * opens and calls fail at once for {@code open-ms}; then {@code half-open-calls} trial calls decide
+ * whether it closes again. Rejected and failed calls surface as a 503 {@code REDIS_UNAVAILABLE}.
+ * <p>
+ * Only {@link DataAccessException}s (connection failures, command timeouts, server errors) count as
+ * failures. Metrics: {@code redis.call} timer by operation and outcome, {@code redis.circuit.state}
+ * (0 closed, 1 open, 2 half-open) and {@code redis.bulkhead.available}.
+ */
+@Component
+@Slf4j
+public class RedisGuard {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Semaphore bulkhead;
+    private final long maxWaitMs;
+    private final int minCalls;
+    private final int failureRatePercent;
+    private final long openMs;
+    private final int halfOpenCalls;
+    private final long retryAfterSeconds;
+
+    // outcome ring of the last window-size calls while closed; guarded by this
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+    private volatile State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public RedisGuard(MeterRegistry meterRegistry,
+            @Value("${app.redis.resilience.max-concurrent:64}") int maxConcurrent,
+            @Value("${app.redis.resilience.max-wait-ms:20}") long maxWaitMs,
+            @Value("${app.redis.resilience.window-size:50}") int windowSize,
+            @Value("${app.redis.resilience.min-calls:20}") int minCalls,
+            @Value("${app.redis.resilience.failure-rate-percent:50}") int failureRatePercent,
+            @Value("${app.redis.resilience.open-ms:5000}") long openMs,
+            @Value("${app.redis.resilience.half-open-calls:5}") int halfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(maxConcurrent);
+        this.maxWaitMs = maxWaitMs;
+        this.window = new boolean[windowSize];
+        this.minCalls = Math.min(minCalls, windowSize);
+        this.failureRatePercent = failureRatePercent;
+        this.openMs = openMs;
+        this.halfOpenCalls = halfOpenCalls;
+        this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(openMs));
+        Gauge.builder("redis.circuit.state", this, g -> g.state.ordinal()).register(meterRegistry);
+        Gauge.builder("redis.bulkhead.available", bulkhead, Semaphore::availablePermits).register(meterRegistry);
+    }
+
+    public <T> T call(String operation, Supplier<T> action) {
+        if (!tryEnterCircuit()) {
+            record(operation, "short_circuited", 0);
+            throw unavailable("Redis circuit is open");
+        }
+        boolean acquired;
+        try {
+            acquired = bulkhead.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            releaseTrial();
+            record(operation, "rejected", 0);
+            throw unavailable("Too many concurrent Redis calls");
+        }
+        long start = System.nanoTime();
+        try {
+            T result = action.get();
+            onOutcome(false);
+            record(operation, "success", System.nanoTime() - start);
+            return result;
+        } catch (DataAccessException e) {
+            onOutcome(true);
+            record(operation, "failure", System.nanoTime() - start);
+            log.debug("Redis {} failed: {}", operation, e.getMessage());
+            throw unavailable("Redis is unavailable");
+        } catch (RuntimeException e) {
+            onOutcome(false);
+            throw e;
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    public void run(String operation, Runnable action) {
+        call(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public State state() {
+        return state;
+    }
+
+    private synchronized boolean tryEnterCircuit() {
+        if (state == State.OPEN) {
+            if (System.currentTimeMillis() - openedAt < openMs)
+                return false;
+            state = State.HALF_OPEN;
+            trialsStarted = 0;
+            trialsSucceeded = 0;
+            log.info("Redis circuit half-open, sending {} trial calls", halfOpenCalls);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= halfOpenCalls)
+                return false;
+            trialsStarted++;
+        }
+        return true;
+    }
+
+    private synchronized void releaseTrial() {
+        if (state == State.HALF_OPEN && trialsStarted > 0)
+            trialsStarted--;
+    }
+
+    private synchronized void onOutcome(boolean failed) {
+        if (state == State.HALF_OPEN) {
+            if (failed)
+                open();
+            else if (++trialsSucceeded >= halfOpenCalls) {
+                state = State.CLOSED;
+                windowIndex = windowCalls = windowFailures = 0;
+                log.info("Redis circuit closed");
+            }
+            return;
+        }
+        if (state != State.CLOSED)
+            return;
+        if (windowCalls == window.length) {
+            if (window[windowIndex])
+                windowFailures--;
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failed;
+        if (failed)
+            windowFailures++;
+        windowIndex = (windowIndex + 1) % window.length;
+        if (windowCalls >= minCalls && windowFailures * 100 >= failureRatePercent * windowCalls)
+            open();
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = System.currentTimeMillis();
+        log.warn("Redis circuit opened for {} ms", openMs);
+    }
+
+    private void record(String operation, String outcome, long nanos) {
+        Timer.builder("redis.call").tag("operation", operation).tag("outcome", outcome).publishPercentileHistogram()
+                .register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private ServiceUnavailableException unavailable(String message) {
+        return new ServiceUnavailableException("REDIS_UNAVAILABLE", message, retryAfterSeconds);
+    }
+}
@@ -10,16 +10,18 @@ import java.time.Duration;
 @RequiredArgsConstructor
 public class RedisHelper {
     private final RedisTemplate<String, String> redisTemplate;
+    private final TrackingRedisCache trackingCache;
+    private final RedisGuard redisGuard;
 
     public void set(String key, String value, long ttlSeconds) {
-        redisTemplate.opsForValue().set(key, value, Duration.ofSeconds(ttlSeconds));
+        redisGuard.run("set", () -> redisTemplate.opsForValue().set(key, value, Duration.ofSeconds(ttlSeconds)));
     }
 
     public String get(String key) {
-        return redisTemplate.opsForValue().get(key);
+        return redisGuard.call("get", () -> trackingCache.get(key));
     }
 
     public void delete(String key) {
-        redisTemplate.delete(key);
+        redisGuard.run("delete", () -> redisTemplate.delete(key));
     }
 }
\ No newline at end of file
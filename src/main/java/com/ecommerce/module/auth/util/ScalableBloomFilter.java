@@ -0,0 +1,113 @@
+package com.ecommerce.module.auth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter that grows by adding stages: when the newest stage reaches its capacity a
+ * new one with twice the capacity and half the false-positive rate is appended, which keeps the
+ * overall false-positive rate below twice the initial target. Never returns a false negative.
+ */
+public class ScalableBloomFilter {
+
+    private final CopyOnWriteArrayList<Stage> stages = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        stages.add(new Stage(Math.max(64, initialCapacity), falsePositiveRate));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        Stage current = stages.get(stages.size() - 1);
+        if (current.count.get() >= current.capacity) {
+            synchronized (stages) {
+                current = stages.get(stages.size() - 1);
+                if (current.count.get() >= current.capacity) {
+                    current = new Stage(current.capacity * 2, current.falsePositiveRate / 2);
+                    stages.add(current);
+                }
+            }
+        }
+        current.put(hash);
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (Stage stage : stages) {
+            if (stage.mightContain(hash))
+                return true;
+        }
+        return false;
+    }
+
+    /** Approximate number of insertions. */
+    public long size() {
+        long n = 0;
+        for (Stage stage : stages)
+            n += stage.count.get();
+        return n;
+    }
+
+    private static long hash(String value) {
+        // 64-bit FNV-1a over UTF-8, finished with the murmur3 fmix64 avalanche
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Stage {
+        final long capacity;
+        final double falsePositiveRate;
+        final long bitCount;
+        final int hashCount;
+        final AtomicLongArray bits;
+        final AtomicInteger count = new AtomicInteger();
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long m = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = bits.get(word);
+                    if ((old & mask) != 0)
+                        break;
+                } while (!bits.compareAndSet(word, old, old | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        boolean mightContain(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = Integer.toUnsignedLong(h1 + i * h2) % bitCount;
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+    }
+}
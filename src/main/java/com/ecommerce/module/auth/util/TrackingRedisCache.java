@@ -0,0 +1,219 @@
+package com.ecommerce.module.auth.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.StringCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.net.SocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Near cache for read-mostly string keys using RESP3 client-side caching: values are read over a
+ * dedicated connection with {@code CLIENT TRACKING} on, and Redis pushes an invalidation to it when a
+ * cached key changes or is deleted. An invalidation can be handled on the event loop after a reply has
+ * arrived but before the reader caches it; every invalidation bumps a generation, and a read that saw
+ * the generation change does not cache, or drops, what it read.
+ * <p>
+ * Tracking lives on the server side of one connection: after a reconnect Redis no longer knows what this
+ * node cached and sends no invalidations. So when the tracking connection drops, the near cache is
+ * cleared and reads go straight to Redis until {@code CLIENT TRACKING} has been re-issued on the new
+ * connection; a value read before the drop is never cached after it.
+ * <p>
+ * Needs a standalone or Sentinel client; with Cluster, or if the tracking connection cannot be opened,
+ * {@link #get} reads straight from Redis. Hit rate is exported as {@code redis.client.cache}.
+ */
+@Component
+@Slf4j
+public class TrackingRedisCache {
+
+    private final LettuceConnectionFactory connectionFactory;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Cache<String, String> local;
+
+    private RedisClient client;
+    private volatile StatefulRedisConnection<String, String> connection;
+    private final RedisConnectionStateListener reconnectListener = new ReconnectListener();
+    // true while invalidations for values read over the connection are guaranteed to arrive
+    private volatile boolean tracking;
+    // bumped on every invalidation and whenever tracking is lost or restored; a read only fills the cache
+    // if it did not change
+    private final AtomicLong generation = new AtomicLong();
+
+    public TrackingRedisCache(LettuceConnectionFactory connectionFactory, RedisTemplate<String, String> redisTemplate,
+            MeterRegistry meterRegistry, @Value("${app.redis.client-cache.enabled:true}") boolean enabled,
+            @Value("${app.redis.client-cache.max-entries:10000}") long maxEntries,
+            @Value("${app.redis.client-cache.ttl-seconds:60}") long ttlSeconds) {
+        this.connectionFactory = connectionFactory;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.local = Caffeine.newBuilder().maximumSize(maxEntries).expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats().build();
+    }
+
+    @PostConstruct
+    public void start() {
+        CaffeineCacheMetrics.monitor(meterRegistry, local, "redis.client.cache");
+        if (!enabled)
+            return;
+        if (!(connectionFactory.getNativeClient() instanceof RedisClient redisClient)) {
+            log.info("Redis client-side caching is not available for this topology, reading through");
+            return;
+        }
+        try {
+            client = redisClient;
+            client.addListener(reconnectListener);
+            StatefulRedisConnection<String, String> c = client.connect(StringCodec.UTF8);
+            c.addListener(this::onPush);
+            connection = c;
+            c.sync().clientTracking(TrackingArgs.Builder.enabled());
+            trackingRestored();
+        } catch (RuntimeException e) {
+            log.warn("Could not enable Redis client-side caching, reading through: {}", e.getMessage());
+            stop();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        trackingLost();
+        if (client != null)
+            client.removeListener(reconnectListener);
+        StatefulRedisConnection<String, String> c = connection;
+        connection = null;
+        if (c != null)
+            c.close();
+    }
+
+    public String get(String key) {
+        StatefulRedisConnection<String, String> c = connection;
+        if (!tracking || c == null)
+            return redisTemplate.opsForValue().get(key);
+        String value = local.getIfPresent(key);
+        if (value != null)
+            return value;
+        long readGeneration = generation.get();
+        try {
+            value = c.sync().get(key);
+        } catch (RuntimeException e) {
+            return redisTemplate.opsForValue().get(key);
+        }
+        if (value != null && tracking && generation.get() == readGeneration) {
+            local.put(key, value);
+            // an invalidation handled between the check and the put
+            if (generation.get() != readGeneration)
+                local.invalidate(key);
+        }
+        return value;
+    }
+
+    /**
+     * Whether values are currently served from the near cache.
+     */
+    public boolean isTracking() {
+        return tracking;
+    }
+
+    private void onPush(PushMessage message) {
+        if (!"invalidate".equals(message.getType()))
+            return;
+        generation.incrementAndGet();
+        List<Object> content = message.getContent(StringCodec.UTF8::decodeKey);
+        // a null key list means the server flushed its tracking table (FLUSHALL, ...)
+        if (content.size() < 2 || !(content.get(1) instanceof List<?> keys)) {
+            local.invalidateAll();
+            return;
+        }
+        for (Object key : keys)
+            local.invalidate(String.valueOf(key));
+    }
+
+    private void trackingLost() {
+        tracking = false;
+        generation.incrementAndGet();
+        local.invalidateAll();
+    }
+
+    private void trackingRestored() {
+        generation.incrementAndGet();
+        local.invalidateAll();
+        tracking = true;
+    }
+
+    /**
+     * Answers what it can from the near cache and fetches the rest with one MGET. Values fetched this way
+     * are not cached, since they were not read over the tracking connection.
+     */
+    public List<String> multiGet(List<String> keys) {
+        List<String> values = new ArrayList<>(keys.size());
+        List<String> missingKeys = new ArrayList<>();
+        List<Integer> missingSlots = new ArrayList<>();
+        boolean tracked = tracking;
+        for (int i = 0; i < keys.size(); i++) {
+            String value = tracked ? local.getIfPresent(keys.get(i)) : null;
+            values.add(value);
+            if (value == null) {
+                missingKeys.add(keys.get(i));
+                missingSlots.add(i);
+            }
+        }
+        if (missingKeys.isEmpty())
+            return values;
+        List<String> fetched = redisTemplate.opsForValue().multiGet(missingKeys);
+        if (fetched != null) {
+            for (int i = 0; i < missingSlots.size(); i++)
+                values.set(missingSlots.get(i), fetched.get(i));
+        }
+        return values;
+    }
+
+    /**
+     * Watches the tracking connection; the client's listeners see every connection it opens. Runs on the
+     * event loop, so tracking is re-issued asynchronously.
+     */
+    private final class ReconnectListener implements RedisConnectionStateListener {
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+            if (handler != connection)
+                return;
+            log.warn("Redis tracking connection lost, reading through until it is re-established");
+            trackingLost();
+        }
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> handler, SocketAddress address) {
+            StatefulRedisConnection<String, String> c = connection;
+            if (c == null || handler != c)
+                return;
+            trackingLost();
+            c.async().clientTracking(TrackingArgs.Builder.enabled()).whenComplete((ok, e) -> {
+                if (e != null) {
+                    log.warn("Could not re-enable Redis client tracking, reading through: {}", e.getMessage());
+                } else if (connection == c) {
+                    trackingRestored();
+                    log.info("Redis client tracking re-enabled");
+                }
+            });
+        }
+    }
+}
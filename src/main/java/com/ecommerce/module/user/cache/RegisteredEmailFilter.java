@@ -0,0 +1,251 @@
+package com.ecommerce.module.user.cache;
+
+import com.ecommerce.module.auth.util.ScalableBloomFilter;
+import com.ecommerce.module.user.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Per-node Bloom filter over every registered email, so lookups for addresses that were never
+ * registered skip the database. It is built from a streaming scan of {@code users} at startup and
+ * rebuilt every {@code rebuild-interval-ms}.
+ * <p>
+ * The filter must never answer "not registered" for a registered email, and pub/sub alone cannot
+ * promise that: a message missed while a node was disconnected would be missing until restart. So
+ * {@link #add} also records the email in a shared sorted set of recent registrations, scored by the
+ * time it was written:
+ * <ul>
+ * <li>a negative from the local filter is confirmed against that set with one ZSCORE, and turns into
+ * "might exist" if Redis cannot be asked;</li>
+ * <li>every node copies the set into its filter on each sync tick and trims entries older than
+ * {@code recent-retention-ms}, so the set stays small;</li>
+ * <li>a node that could not sync for longer than the retention may have lost entries, so it answers
+ * "might exist" for everything until a rebuild from the database completes.</li>
+ * </ul>
+ * Pub/sub only makes new emails reach the other filters sooner.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegisteredEmailFilter {
+
+    private static final String CHANNEL = "user:email:added";
+    private static final String RECENT_KEY = "user:registered-email:recent";
+    // re-read this much of the recent set on every sync to absorb clock skew between nodes
+    private static final long SYNC_OVERLAP_MS = 30_000;
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.email-filter.expected-insertions:1000000}")
+    private long expectedInsertions;
+
+    @Value("${app.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.email-filter.recent-retention-ms:3600000}")
+    private long recentRetentionMs;
+
+    @Value("${app.email-filter.rebuild-interval-ms:21600000}")
+    private long rebuildIntervalMs;
+
+    private volatile ScalableBloomFilter filter;
+    private volatile boolean ready;
+    // guarded by this: the filter holds every email in the recent set scored before this
+    private long syncedUntil;
+    private volatile long builtAt;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final Queue<String> unrecorded = new ConcurrentLinkedQueue<>();
+    private Counter definiteMisses;
+    private Counter recentHits;
+    private Counter maybes;
+
+    @PostConstruct
+    void init() {
+        filter = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+        definiteMisses = meterRegistry.counter("auth.email.filter", "result", "miss");
+        maybes = meterRegistry.counter("auth.email.filter", "result", "maybe");
+        recentHits = meterRegistry.counter("auth.email.filter", "result", "recent");
+        if (!enabled)
+            return;
+        // subscribe before scanning so nothing registered elsewhere during the scan is missed
+        listenerContainer.addMessageListener((message, pattern) -> filter.put(
+                new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void rebuildOnStartup() {
+        if (!enabled)
+            return;
+        startRebuild();
+    }
+
+    private void startRebuild() {
+        if (!rebuilding.get())
+            Thread.ofPlatform().name("email-filter-rebuild").daemon().start(this::rebuild);
+    }
+
+    /**
+     * Streams every email into a new filter, adds what was recorded in the recent set since the scan
+     * started and swaps it in. Runs in a read-only transaction so the driver can use a cursor instead of
+     * loading the whole table.
+     */
+    public void rebuild() {
+        if (!rebuilding.compareAndSet(false, true))
+            return;
+        long start = System.nanoTime();
+        long startedAt = System.currentTimeMillis();
+        try {
+            ScalableBloomFilter fresh = new ScalableBloomFilter(expectedInsertions, falsePositiveRate);
+            TransactionTemplate tx = new TransactionTemplate(transactionManager);
+            tx.setReadOnly(true);
+            Long count = tx.execute(status -> {
+                long n = 0;
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    for (String email : (Iterable<String>) emails::iterator) {
+                        fresh.put(email);
+                        n++;
+                    }
+                }
+                return n;
+            });
+            synchronized (this) {
+                // registrations that committed while the scan ran
+                copyRecent(fresh, startedAt - SYNC_OVERLAP_MS);
+                filter = fresh;
+                syncedUntil = startedAt;
+                builtAt = startedAt;
+                ready = true;
+            }
+            log.info("Registered email filter built from {} users in {} ms", count,
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Could not build registered email filter, lookups will go to the database: {}",
+                    e.getMessage());
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Records adds that could not be written before, copies new entries of the recent set into the
+     * filter and trims the set.
+     */
+    @Scheduled(fixedDelayString = "${app.email-filter.sync-interval-ms:30000}")
+    public void sync() {
+        if (!enabled)
+            return;
+        long now = System.currentTimeMillis();
+        try {
+            String email;
+            while ((email = unrecorded.peek()) != null) {
+                redisTemplate.opsForZSet().add(RECENT_KEY, email, now);
+                unrecorded.poll();
+            }
+            redisTemplate.opsForZSet().removeRangeByScore(RECENT_KEY, Double.NEGATIVE_INFINITY,
+                    now - recentRetentionMs);
+        } catch (RuntimeException e) {
+            log.warn("Could not update recent registered emails: {}", e.getMessage());
+        }
+        if (!ready) {
+            startRebuild();
+            return;
+        }
+        synchronized (this) {
+            try {
+                copyRecent(filter, syncedUntil - SYNC_OVERLAP_MS);
+                syncedUntil = now;
+            } catch (RuntimeException e) {
+                log.warn("Could not sync registered email filter: {}", e.getMessage());
+            }
+            if (now - syncedUntil > recentRetentionMs - SYNC_OVERLAP_MS) {
+                // entries this node never copied may already be trimmed
+                log.warn("Registered email filter fell behind, lookups go to the database until it is rebuilt");
+                ready = false;
+            }
+        }
+        if (!ready || now - builtAt > rebuildIntervalMs)
+            startRebuild();
+    }
+
+    private void copyRecent(ScalableBloomFilter target, long since) {
+        Set<String> emails = redisTemplate.opsForZSet().rangeByScore(RECENT_KEY, since, Double.POSITIVE_INFINITY);
+        if (emails != null)
+            emails.forEach(target::put);
+    }
+
+    /**
+     * {@code false} only if the email is certainly not registered.
+     */
+    public boolean mightExist(String email) {
+        if (!ready || email == null)
+            return true;
+        if (filter.mightContain(email)) {
+            maybes.increment();
+            return true;
+        }
+        if (recentlyAdded(email)) {
+            recentHits.increment();
+            filter.put(email);
+            return true;
+        }
+        definiteMisses.increment();
+        return false;
+    }
+
+    private boolean recentlyAdded(String email) {
+        try {
+            return redisTemplate.opsForZSet().score(RECENT_KEY, email) != null;
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Records a newly registered email on this node and every other one. Call after the insert commits.
+     */
+    public void add(String email) {
+        filter.put(email);
+        if (!enabled)
+            return;
+        try {
+            redisTemplate.opsForZSet().add(RECENT_KEY, email, System.currentTimeMillis());
+        } catch (RuntimeException e) {
+            // written on the next sync; until then other nodes cannot confirm a negative and ask the database
+            unrecorded.add(email);
+            log.warn("Could not record registered email, retrying on the next sync: {}", e.getMessage());
+            return;
+        }
+        try {
+            redisTemplate.convertAndSend(CHANNEL, email);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish registered email: {}", e.getMessage());
+        }
+    }
+}
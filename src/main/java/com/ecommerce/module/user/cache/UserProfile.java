@@ -0,0 +1,15 @@
+package com.ecommerce.module.user.cache;
+
+import com.ecommerce.module.user.entity.User;
+
+/**
+ * Read-only snapshot of the user fields the auth flows need, safe to share between requests and nodes.
+ */
+public record UserProfile(Long id, String email, String role, String fullName, Boolean isEmailVerified,
+        Boolean isActive) {
+
+    public static UserProfile from(User user) {
+        return new UserProfile(user.getId(), user.getEmail(), user.getRole(), user.getFullName(),
+                user.getIsEmailVerified(), user.getIsActive());
+    }
+}
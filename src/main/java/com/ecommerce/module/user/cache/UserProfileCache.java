@@ -0,0 +1,249 @@
+package com.ecommerce.module.user.cache;
+
+import com.ecommerce.config.ReplicaRoutingDataSource;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Two-tier cache of {@link UserProfile}: a small per-node Caffeine cache in front of a shared Redis
+ * tier, falling back to {@link UserRepository}. Writers call {@link #evict} after every user change;
+ * that drops the Redis entries and tells every node over pub/sub to drop its local copy. The short
+ * local TTL bounds staleness if an invalidation message is lost. Misses are read as projections straight
+ * into {@link UserProfile}, without a managed entity.
+ * <p>
+ * A reader that loaded a profile just before an evict must not put it back afterwards. Each user has a
+ * version key next to the profile (same hash slot) that {@link #evict} increments; a reader notes the
+ * version before going to the database and only caches what it read if the version is unchanged. Misses
+ * read the primary: a lagging replica could still return the row as it was before the evict.
+ * <p>
+ * Redis failures are never surfaced to callers: lookups fall through to the database, and what is read
+ * while the version cannot be checked is cached in neither tier.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserProfileCache {
+
+    private static final String PROFILE_PREFIX = "user:profile:";
+    private static final String EMAIL_PREFIX = "user:email:";
+    private static final String CHANNEL = "user:profile:invalidate";
+    // outlives any read that could race an evict; an expired version only refuses one fill
+    private static final Duration VERSION_TTL = Duration.ofDays(1);
+
+    private static final RedisScript<Long> FILL_SCRIPT = script("user-profile-fill.lua");
+    private static final RedisScript<Long> EVICT_SCRIPT = script("user-profile-evict.lua");
+
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-cache.near.max-entries:10000}")
+    private long nearMaxEntries;
+
+    @Value("${app.user-cache.near.ttl-seconds:30}")
+    private long nearTtlSeconds;
+
+    @Value("${app.user-cache.redis.ttl-seconds:600}")
+    private long redisTtlSeconds;
+
+    private Cache<Long, UserProfile> byId;
+    private Cache<String, Long> idByEmail;
+    private Counter redisHits;
+    private Counter redisMisses;
+    private Counter redisErrors;
+    private TransactionTemplate primaryRead;
+
+    @PostConstruct
+    void init() {
+        byId = Caffeine.newBuilder().maximumSize(nearMaxEntries).expireAfterWrite(Duration.ofSeconds(nearTtlSeconds))
+                .recordStats().build();
+        idByEmail = Caffeine.newBuilder().maximumSize(nearMaxEntries)
+                .expireAfterWrite(Duration.ofSeconds(nearTtlSeconds)).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "user.profile.near");
+        redisHits = meterRegistry.counter("user.profile.redis", "result", "hit");
+        redisMisses = meterRegistry.counter("user.profile.redis", "result", "miss");
+        redisErrors = meterRegistry.counter("user.profile.redis", "result", "error");
+        primaryRead = new TransactionTemplate(transactionManager);
+        primaryRead.setReadOnly(true);
+        primaryRead.setName(ReplicaRoutingDataSource.PRIMARY_READ);
+        listenerContainer.addMessageListener((message, pattern) -> evictLocal(
+                new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(CHANNEL));
+    }
+
+    public Optional<UserProfile> findById(Long id) {
+        UserProfile near = byId.getIfPresent(id);
+        if (near != null)
+            return Optional.of(near);
+        UserProfile profile;
+        String version = null;
+        try {
+            profile = readRedis(id);
+            if (profile == null)
+                version = redisTemplate.opsForValue().get(versionKey(id));
+        } catch (RuntimeException e) {
+            redisFailed(e);
+            return loadById(id);
+        }
+        if (profile == null) {
+            profile = loadById(id).orElse(null);
+            if (profile == null)
+                return Optional.empty();
+            if (!writeRedis(profile, version))
+                // evicted while we read, or Redis is unavailable; the next lookup reads again
+                return Optional.of(profile);
+        }
+        putLocal(profile);
+        return Optional.of(profile);
+    }
+
+    public Optional<UserProfile> findByEmail(String email) {
+        if (email == null)
+            return Optional.empty();
+        Long id = idByEmail.getIfPresent(email);
+        if (id == null) {
+            try {
+                String cachedId = redisTemplate.opsForValue().get(EMAIL_PREFIX + email);
+                if (cachedId != null)
+                    id = Long.valueOf(cachedId);
+            } catch (RuntimeException e) {
+                redisFailed(e);
+            }
+        }
+        if (id != null) {
+            Optional<UserProfile> profile = findById(id);
+            if (profile.isPresent() && email.equals(profile.get().email()))
+                return profile;
+        }
+        // the id is not known before this read, so there is no version to check the profile against; only
+        // the email mapping is cached, which findById then verifies
+        Optional<UserProfile> loaded = primaryRead.execute(status -> userRepository.findProfileByEmail(email));
+        loaded.ifPresent(profile -> {
+            try {
+                redisTemplate.opsForValue().set(EMAIL_PREFIX + profile.email(), String.valueOf(profile.id()),
+                        Duration.ofSeconds(redisTtlSeconds));
+            } catch (RuntimeException e) {
+                redisFailed(e);
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drops a user from both tiers on every node. Call after the change is committed.
+     */
+    public void evict(Long userId, String email) {
+        try {
+            redisTemplate.execute(EVICT_SCRIPT, List.of(versionKey(userId), profileKey(userId)),
+                    String.valueOf(VERSION_TTL.toSeconds()));
+            redisTemplate.delete(EMAIL_PREFIX + email);
+            redisTemplate.convertAndSend(CHANNEL, userId + "|" + email);
+        } catch (RuntimeException e) {
+            log.warn("Could not publish user cache invalidation for {}: {}", userId, e.getMessage());
+        }
+        evictLocal(userId + "|" + email);
+    }
+
+    private void evictLocal(String message) {
+        int sep = message.indexOf('|');
+        try {
+            byId.invalidate(Long.valueOf(message.substring(0, sep)));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed user cache invalidation '{}'", message);
+        }
+        idByEmail.invalidate(message.substring(sep + 1));
+    }
+
+    private void putLocal(UserProfile profile) {
+        byId.put(profile.id(), profile);
+        idByEmail.put(profile.email(), profile.id());
+    }
+
+    private UserProfile readRedis(Long id) {
+        String json = redisTemplate.opsForValue().get(profileKey(id));
+        if (json == null) {
+            redisMisses.increment();
+            return null;
+        }
+        try {
+            UserProfile profile = objectMapper.readValue(json, UserProfile.class);
+            redisHits.increment();
+            return profile;
+        } catch (JsonProcessingException e) {
+            redisMisses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * @return {@code false} if the user was evicted since {@code version} was read, or Redis failed, and
+     *         nothing was cached
+     */
+    private boolean writeRedis(UserProfile profile, String version) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        try {
+            Long filled = redisTemplate.execute(FILL_SCRIPT,
+                    List.of(versionKey(profile.id()), profileKey(profile.id())), version == null ? "" : version,
+                    json, String.valueOf(redisTtlSeconds));
+            if (filled == null || filled != 1L)
+                return false;
+            redisTemplate.opsForValue().set(EMAIL_PREFIX + profile.email(), String.valueOf(profile.id()),
+                    Duration.ofSeconds(redisTtlSeconds));
+            return true;
+        } catch (RuntimeException e) {
+            redisFailed(e);
+            return false;
+        }
+    }
+
+    private Optional<UserProfile> loadById(Long id) {
+        return primaryRead.execute(status -> userRepository.findProfileById(id));
+    }
+
+    private void redisFailed(RuntimeException e) {
+        redisErrors.increment();
+        log.debug("User cache Redis call failed, using the database: {}", e.getMessage());
+    }
+
+    private static String profileKey(Long id) {
+        return PROFILE_PREFIX + "{" + id + "}";
+    }
+
+    private static String versionKey(Long id) {
+        return PROFILE_PREFIX + "{" + id + "}:version";
+    }
+
+    private static RedisScript<Long> script(String name) {
+        return RedisScript.of(new ClassPathResource("redis/" + name), Long.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.module.user.controller;
+
+import com.ecommerce.module.user.dto.response.UserImportJob;
+import com.ecommerce.module.user.service.UserImportService;
+import com.ecommerce.module.user.util.ImportRowReader.Format;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/v1/admin/users")
+@RequiredArgsConstructor
+public class UserImportController {
+
+    private final UserImportService userImportService;
+
+    /**
+     * Accepts a CSV ({@code text/csv}) or NDJSON ({@code application/x-ndjson}) body of accounts and
+     * imports it in the background; poll the returned job for the result.
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<?> importUsers(HttpServletRequest request,
+            @RequestParam(value = "emailVerified", defaultValue = "false") boolean emailVerified) throws IOException {
+        Format format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(
+                "text/csv")) ? Format.CSV : Format.NDJSON;
+        UserImportJob job = userImportService.startImport(request.getInputStream(), format, emailVerified);
+        return ResponseEntity.accepted().location(URI.create("/api/v1/admin/users/import/" + job.id()))
+                .body(java.util.Map.of("status", "success", "data", job));
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<?> importJob(@PathVariable("jobId") String jobId) {
+        return userImportService.findJob(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.ok(java.util.Map.of("status", "success", "data", job)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(java.util.Map.of(
+                        "status", "error",
+                        "error", java.util.Map.of("code", "IMPORT_NOT_FOUND", "message", "No such import on this node"),
+                        "meta", java.util.Map.of("timestamp", Instant.now().toString(), "requestId", "-"))));
+    }
+}
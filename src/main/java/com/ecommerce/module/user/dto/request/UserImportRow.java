@@ -0,0 +1,17 @@
+package com.ecommerce.module.user.dto.request;
+
+import lombok.*;
+
+/**
+ * One account in a bulk import file, either a CSV line or an NDJSON object.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportRow {
+    private String fullName;
+    private String email;
+    private String password;
+    private String role; // CUSTOMER | VENDOR | ADMIN | STAFF, defaults to CUSTOMER
+}
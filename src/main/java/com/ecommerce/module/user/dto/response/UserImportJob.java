@@ -0,0 +1,26 @@
+package com.ecommerce.module.user.dto.response;
+
+import java.time.Instant;
+
+/**
+ * State of a bulk import running in the background; {@code result} is set once it has completed.
+ */
+public record UserImportJob(String id, Status status, Instant startedAt, Instant finishedAt,
+        UserImportResult result, String errorCode, String errorMessage) {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    public static UserImportJob running(String id) {
+        return new UserImportJob(id, Status.RUNNING, Instant.now(), null, null, null, null);
+    }
+
+    public UserImportJob completed(UserImportResult result) {
+        return new UserImportJob(id, Status.COMPLETED, startedAt, Instant.now(), result, null, null);
+    }
+
+    public UserImportJob failed(String code, String message) {
+        return new UserImportJob(id, Status.FAILED, startedAt, Instant.now(), null, code, message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.ecommerce.module.user.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class UserImportResult {
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RowError> errors; // capped, see app.user-import.max-reported-errors
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String email;
+        private String code;
+        private String message;
+    }
+}
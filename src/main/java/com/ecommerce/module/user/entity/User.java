@@ -16,8 +16,10 @@ import java.time.Instant;
 @Builder
 public class User {
 
+    // pooled sequence so Hibernate can batch inserts; one sequence call covers 50 ids
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_id_seq")
+    @SequenceGenerator(name = "users_id_seq", sequenceName = "users_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "full_name", length = 100)
@@ -1,14 +1,86 @@
 package com.ecommerce.module.user.repository;
 
+import com.ecommerce.module.user.cache.UserProfile;
 import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.projection.UserCredentials;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("""
+            select new com.ecommerce.module.user.repository.projection.UserCredentials(u.id, u.email, u.password,
+                u.role, u.fullName, u.isEmailVerified)
+            from User u where u.email = :email""")
+    Optional<UserCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("""
+            select new com.ecommerce.module.user.cache.UserProfile(u.id, u.email, u.role, u.fullName,
+                u.isEmailVerified, u.isActive)
+            from User u where u.id = :id""")
+    Optional<UserProfile> findProfileById(@Param("id") Long id);
+
+    @Query("""
+            select new com.ecommerce.module.user.cache.UserProfile(u.id, u.email, u.role, u.fullName,
+                u.isEmailVerified, u.isActive)
+            from User u where u.email = :email""")
+    Optional<UserProfile> findProfileByEmail(@Param("email") String email);
+
+    @Query("select u.id from User u where u.email = :email")
+    Optional<Long> findIdByEmail(@Param("email") String email);
+
+    @Modifying
+    @Query("update User u set u.isEmailVerified = true, u.updatedAt = :now where u.id = :id")
+    int markEmailVerified(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update User u set u.password = :password, u.updatedAt = :now where u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password, @Param("now") Instant now);
+
+    /**
+     * Swaps the hash only if it is still {@code expected}, so a rehash never overwrites a concurrent reset.
+     */
+    @Modifying
+    @Query("update User u set u.password = :replacement where u.id = :id and u.password = :expected")
+    int replacePasswordHash(@Param("id") Long id, @Param("expected") String expected,
+            @Param("replacement") String replacement);
+
+    /**
+     * Inserts a user unless the email is taken, in one statement. Returns the new id, or empty on conflict.
+     * The id is a raw sequence value: that value is the top of a pooled block no Hibernate session will
+     * be handed, so it cannot collide with ids allocated through {@link User}.
+     */
+    @Query(value = """
+            INSERT INTO users (id, full_name, email, password, role, is_email_verified, is_active, created_at,
+                updated_at)
+            VALUES (nextval('users_id_seq'), :fullName, :email, :password, :role, :verified, true, now(), now())
+            ON CONFLICT (email) DO NOTHING
+            RETURNING id""", nativeQuery = true)
+    Optional<Long> insertIfAbsent(@Param("fullName") String fullName, @Param("email") String email,
+            @Param("password") String password, @Param("role") String role, @Param("verified") boolean verified);
+
+    @Query("select u.email from User u where u.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select u.email from User u")
+    @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true") })
+    Stream<String> streamAllEmails();
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.module.user.repository.projection;
+
+/**
+ * The fields a password login reads, fetched without loading a managed {@code User}.
+ */
+public record UserCredentials(Long id, String email, String password, String role, String fullName,
+        Boolean isEmailVerified) {
+}
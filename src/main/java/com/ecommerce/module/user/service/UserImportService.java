@@ -0,0 +1,21 @@
+package com.ecommerce.module.user.service;
+
+import com.ecommerce.module.user.dto.response.UserImportJob;
+import com.ecommerce.module.user.util.ImportRowReader.Format;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+public interface UserImportService {
+    /**
+     * Spools {@code input} to a temporary file and imports it in the background; only one import runs at
+     * a time. Invalid or duplicate rows are reported in the job's result and do not stop the rest of the
+     * file.
+     */
+    UserImportJob startImport(InputStream input, Format format, boolean emailVerified);
+
+    /**
+     * A recent import started on this node.
+     */
+    Optional<UserImportJob> findJob(String id);
+}
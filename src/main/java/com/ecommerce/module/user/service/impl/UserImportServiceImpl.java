@@ -0,0 +1,351 @@
+package com.ecommerce.module.user.service.impl;
+
+import com.ecommerce.module.auth.exception.BadRequestException;
+import com.ecommerce.module.auth.exception.TooManyRequestsException;
+import com.ecommerce.module.user.cache.RegisteredEmailFilter;
+import com.ecommerce.module.user.dto.request.UserImportRow;
+import com.ecommerce.module.user.dto.response.UserImportJob;
+import com.ecommerce.module.user.dto.response.UserImportResult;
+import com.ecommerce.module.user.dto.response.UserImportResult.RowError;
+import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.module.user.service.UserImportService;
+import com.ecommerce.module.user.util.ImportRowReader;
+import com.ecommerce.module.user.util.ImportRowReader.Entry;
+import com.ecommerce.module.user.util.ImportRowReader.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Imports users in chunks: each chunk is validated, deduplicated against the file and the database
+ * with one query, hashed in parallel and persisted in a single transaction so Hibernate can batch the
+ * inserts. If a chunk hits a unique violation (an email registered concurrently) it is retried row by
+ * row so only the offending row fails.
+ * <p>
+ * Hashing runs on its own pool rather than {@code PasswordHasher}, so an import cannot starve
+ * interactive logins of their admission shares; only one import runs at a time. The upload is spooled
+ * to a temporary file and imported on a background thread, so hashing a large file never holds the
+ * HTTP request; jobs are tracked in memory on the node that accepted the upload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserImportServiceImpl implements UserImportService {
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final Set<String> ROLES = Set.of("CUSTOMER", "VENDOR", "ADMIN", "STAFF");
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final RegisteredEmailFilter registeredEmails;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.user-import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.user-import.hash-threads:0}")
+    private int hashThreads;
+
+    @Value("${app.user-import.max-rows:100000}")
+    private long maxRows;
+
+    @Value("${app.user-import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    @Value("${app.user-import.max-bytes:104857600}")
+    private long maxBytes;
+
+    @Value("${app.user-import.retained-jobs:20}")
+    private int retainedJobs;
+
+    private final Semaphore running = new Semaphore(1);
+    private final Map<String, UserImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserImportJob> eldest) {
+            return size() > retainedJobs;
+        }
+    });
+    private ExecutorService importExecutor;
+    private ExecutorService hashPool;
+    private Counter importedRows;
+    private Counter failedRows;
+
+    @PostConstruct
+    void init() {
+        int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        hashPool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "user-import-hash-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        importExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "user-import");
+            t.setDaemon(true);
+            return t;
+        });
+        importedRows = meterRegistry.counter("user.import.rows", "result", "imported");
+        failedRows = meterRegistry.counter("user.import.rows", "result", "failed");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        importExecutor.shutdownNow();
+        hashPool.shutdownNow();
+    }
+
+    @Override
+    public UserImportJob startImport(InputStream input, Format format, boolean emailVerified) {
+        if (!running.tryAcquire())
+            throw new TooManyRequestsException("IMPORT_IN_PROGRESS", "Another import is running", 30);
+        Path file = null;
+        try {
+            file = spool(input);
+            UserImportJob job = UserImportJob.running(UUID.randomUUID().toString());
+            jobs.put(job.id(), job);
+            Path spooled = file;
+            importExecutor.execute(() -> runJob(job, spooled, format, emailVerified));
+            return job;
+        } catch (RuntimeException e) {
+            delete(file);
+            running.release();
+            if (e instanceof RejectedExecutionException)
+                throw new TooManyRequestsException("IMPORT_IN_PROGRESS", "Import executor is shutting down", 30);
+            throw e;
+        }
+    }
+
+    @Override
+    public Optional<UserImportJob> findJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private Path spool(InputStream input) {
+        try {
+            Path file = Files.createTempFile("user-import-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                byte[] buffer = new byte[64 * 1024];
+                long total = 0;
+                int n;
+                while ((n = input.read(buffer)) != -1) {
+                    total += n;
+                    if (total > maxBytes) {
+                        delete(file);
+                        throw new BadRequestException("IMPORT_TOO_LARGE", "Import is limited to " + maxBytes + " bytes");
+                    }
+                    out.write(buffer, 0, n);
+                }
+            }
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void runJob(UserImportJob job, Path file, Format format, boolean emailVerified) {
+        try (InputStream in = Files.newInputStream(file)) {
+            jobs.put(job.id(), job.completed(run(in, format, emailVerified)));
+        } catch (BadRequestException e) {
+            jobs.put(job.id(), job.failed(e.getCode(), e.getMessage()));
+        } catch (IOException | RuntimeException e) {
+            log.error("User import {} failed", job.id(), e);
+            jobs.put(job.id(), job.failed("IMPORT_FAILED", e.getMessage()));
+        } finally {
+            delete(file);
+            running.release();
+        }
+    }
+
+    private static void delete(Path file) {
+        if (file == null)
+            return;
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import spool file {}: {}", file, e.getMessage());
+        }
+    }
+
+    private UserImportResult run(InputStream input, Format format, boolean emailVerified) {
+        Progress progress = new Progress();
+        Set<String> seen = new HashSet<>();
+        List<Entry> chunk = new ArrayList<>(chunkSize);
+        long start = System.nanoTime();
+        try (ImportRowReader reader = new ImportRowReader(new InputStreamReader(input, StandardCharsets.UTF_8),
+                format, objectMapper)) {
+            Entry entry;
+            while ((entry = reader.next()) != null) {
+                if (progress.received == maxRows) {
+                    progress.fail(entry.line(), null, "TOO_MANY_ROWS", "Import is limited to " + maxRows + " rows");
+                    break;
+                }
+                progress.received++;
+                String error = entry.error() != null ? entry.error() : validate(entry.row());
+                if (error != null) {
+                    progress.fail(entry.line(), entry.row() == null ? null : entry.row().getEmail(), "INVALID_ROW",
+                            error);
+                } else if (!seen.add(entry.row().getEmail().trim().toLowerCase(Locale.ROOT))) {
+                    progress.fail(entry.line(), entry.row().getEmail(), "DUPLICATE_ERROR", "Email repeated in file");
+                } else {
+                    chunk.add(entry);
+                    if (chunk.size() == chunkSize) {
+                        importChunk(chunk, emailVerified, progress);
+                        chunk.clear();
+                    }
+                }
+            }
+            if (!chunk.isEmpty())
+                importChunk(chunk, emailVerified, progress);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("INVALID_HEADER", e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Imported {} of {} users in {} ms", progress.imported, progress.received,
+                (System.nanoTime() - start) / 1_000_000);
+        return new UserImportResult(progress.received, progress.imported, progress.failed, progress.errors);
+    }
+
+    private void importChunk(List<Entry> chunk, boolean emailVerified, Progress progress) {
+        // one query for the whole chunk; asking the email filter first would cost a Redis call per negative
+        List<String> candidates = chunk.stream().map(e -> e.row().getEmail().trim()).toList();
+        Set<String> existing = candidates.isEmpty() ? Set.of()
+                : new HashSet<>(userRepository.findExistingEmails(candidates));
+
+        List<Entry> accepted = new ArrayList<>(chunk.size());
+        List<Future<String>> hashes = new ArrayList<>(chunk.size());
+        for (Entry e : chunk) {
+            if (existing.contains(e.row().getEmail().trim())) {
+                progress.fail(e.line(), e.row().getEmail(), "DUPLICATE_ERROR", "Email already registered");
+                continue;
+            }
+            accepted.add(e);
+            String raw = e.row().getPassword();
+            hashes.add(hashPool.submit(() -> passwordEncoder.encode(raw)));
+        }
+
+        List<User> users = new ArrayList<>(accepted.size());
+        Instant now = Instant.now();
+        for (int i = 0; i < accepted.size(); i++) {
+            UserImportRow row = accepted.get(i).row();
+            users.add(User.builder()
+                    .email(row.getEmail().trim())
+                    .fullName(row.getFullName() == null ? "" : row.getFullName().trim())
+                    .password(await(hashes.get(i)))
+                    .role(row.getRole() == null || row.getRole().isBlank() ? "CUSTOMER" : row.getRole().trim())
+                    .isEmailVerified(emailVerified)
+                    .isActive(true)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+            });
+            for (User u : users)
+                registeredEmails.add(u.getEmail());
+            progress.imported(users.size());
+        } catch (DataIntegrityViolationException e) {
+            log.info("Import chunk hit a constraint violation, retrying {} rows individually", users.size());
+            for (int i = 0; i < users.size(); i++)
+                importOne(accepted.get(i), users.get(i), progress);
+        }
+    }
+
+    private void importOne(Entry entry, User user, Progress progress) {
+        user.setId(null); // assigned by the rolled back batch
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAndFlush(user));
+            registeredEmails.add(user.getEmail());
+            progress.imported(1);
+        } catch (DataIntegrityViolationException e) {
+            progress.fail(entry.line(), user.getEmail(), "DUPLICATE_ERROR", "Email already registered");
+        }
+    }
+
+    private static String validate(UserImportRow row) {
+        if (row.getEmail() == null || !EMAIL.matcher(row.getEmail().trim()).matches()
+                || row.getEmail().trim().length() > 150)
+            return "Invalid email";
+        if (row.getPassword() == null || row.getPassword().length() < 8)
+            return "Password must be at least 8 characters";
+        if (row.getFullName() != null && row.getFullName().trim().length() > 100)
+            return "Full name must be at most 100 characters";
+        if (row.getRole() != null && !row.getRole().isBlank() && !ROLES.contains(row.getRole().trim()))
+            return "Unknown role";
+        return null;
+    }
+
+    private static String await(Future<String> hash) {
+        try {
+            return hash.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    private final class Progress {
+        long received;
+        long imported;
+        long failed;
+        final List<RowError> errors = new ArrayList<>();
+
+        void imported(int count) {
+            imported += count;
+            importedRows.increment(count);
+        }
+
+        void fail(long line, String email, String code, String message) {
+            failed++;
+            failedRows.increment();
+            if (errors.size() < maxReportedErrors)
+                errors.add(new RowError(line, email, code, message));
+        }
+    }
+}
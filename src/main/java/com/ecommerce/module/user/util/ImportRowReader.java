@@ -0,0 +1,130 @@
+package com.ecommerce.module.user.util;
+
+import com.ecommerce.module.user.dto.request.UserImportRow;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads a bulk import file one row at a time so the whole file is never held in memory.
+ * <p>
+ * CSV needs a header naming the columns ({@code email}, {@code password}, {@code fullName} or
+ * {@code full_name}, {@code role}) in any order; fields may be double-quoted but not span lines.
+ * NDJSON is one {@link UserImportRow} object per line. Blank lines are skipped. A line that cannot be
+ * parsed is returned as an entry with an error rather than ending the read.
+ */
+public class ImportRowReader implements Closeable {
+
+    public enum Format {
+        CSV, NDJSON
+    }
+
+    public record Entry(long line, UserImportRow row, String error) {
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+    private long line;
+    private int[] columns; // email, password, fullName, role; -1 if absent
+
+    public ImportRowReader(Reader reader, Format format, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader b ? b : new BufferedReader(reader);
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns the next row, or {@code null} at the end of the input.
+     */
+    public Entry next() throws IOException {
+        String text;
+        do {
+            text = reader.readLine();
+            if (text == null)
+                return null;
+            line++;
+        } while (text.isBlank());
+
+        if (format == Format.NDJSON) {
+            try {
+                return new Entry(line, objectMapper.readValue(text, UserImportRow.class), null);
+            } catch (JsonProcessingException e) {
+                return new Entry(line, null, "Malformed JSON");
+            }
+        }
+
+        List<String> fields = splitCsv(text);
+        if (fields == null)
+            return new Entry(line, null, "Unterminated quote");
+        if (columns == null) {
+            columns = header(fields);
+            if (columns[0] < 0 || columns[1] < 0)
+                throw new IllegalArgumentException("CSV header must name email and password columns");
+            return next();
+        }
+        return new Entry(line, new UserImportRow(field(fields, columns[2]), field(fields, columns[0]),
+                field(fields, columns[1]), field(fields, columns[3])), null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private static int[] header(List<String> names) {
+        int[] cols = { -1, -1, -1, -1 };
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "email" -> cols[0] = i;
+                case "password" -> cols[1] = i;
+                case "fullname", "full_name" -> cols[2] = i;
+                case "role" -> cols[3] = i;
+                default -> {
+                }
+            }
+        }
+        return cols;
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < 0 || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static List<String> splitCsv(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted)
+            return null;
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,8 @@
+-- Deletes a lock only if it still holds the caller's token, so a holder whose lock expired cannot
+-- release the lock another node has taken since.
+-- KEYS[1] = lock
+-- ARGV[1] = token
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -0,0 +1,26 @@
+-- Token bucket: takes `cost` tokens if available.
+-- KEYS[1] = bucket key
+-- ARGV[1] = capacity, ARGV[2] = refill tokens per second, ARGV[3] = now (ms), ARGV[4] = cost
+-- Returns {1, 0} when allowed, {0, retryAfterMs} when not.
+local capacity = tonumber(ARGV[1])
+local rate = tonumber(ARGV[2])
+local now = tonumber(ARGV[3])
+local cost = tonumber(ARGV[4])
+local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+local tokens = tonumber(state[1]) or capacity
+local ts = tonumber(state[2]) or now
+if now > ts then
+    tokens = math.min(capacity, tokens + (now - ts) * rate / 1000)
+    ts = now
+end
+local allowed = 0
+local retry = 0
+if tokens >= cost then
+    tokens = tokens - cost
+    allowed = 1
+else
+    retry = math.ceil((cost - tokens) * 1000 / rate)
+end
+redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(ts))
+redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate))
+return { allowed, retry }
@@ -0,0 +1,18 @@
+-- Stores a new refresh record, stamped with the user's current security stamp, and indexes it.
+-- The index is a sorted set scored by expiry; dead entries are trimmed on every write and the index
+-- expires with its newest record.
+-- KEYS[1] = record key, KEYS[2] = per-user index, KEYS[3] = security stamp
+-- ARGV[1] = user id, ARGV[2] = rest of the record (issuedAt|roles|device|email), ARGV[3] = ttl seconds,
+-- ARGV[4] = token id, ARGV[5] = now (epoch seconds)
+local stamp = redis.call('GET', KEYS[3])
+if not stamp then
+  -- written so validation can cache it; a missing key cannot be tracked
+  stamp = '0'
+  redis.call('SET', KEYS[3], stamp)
+end
+local now = tonumber(ARGV[5])
+redis.call('SET', KEYS[1], ARGV[1] .. '|' .. stamp .. '|' .. ARGV[2], 'EX', ARGV[3])
+redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+redis.call('ZADD', KEYS[2], now + tonumber(ARGV[3]), ARGV[4])
+redis.call('EXPIRE', KEYS[2], ARGV[3])
+return 1
@@ -0,0 +1,19 @@
+-- Removes every refresh record indexed under a user, then the index itself.
+-- Record keys share the index's {userId} hash tag, so they live in the same cluster slot.
+-- KEYS[1] = per-user index (sorted set), KEYS[2] = index in the older plain-set layout, if any
+-- ARGV[1] = record key prefix for the user
+local tokens = redis.call('ZRANGE', KEYS[1], 0, -1)
+for _, token in ipairs(redis.call('SMEMBERS', KEYS[2])) do
+    tokens[#tokens + 1] = token
+end
+local removed = 0
+local batch = {}
+for i, token in ipairs(tokens) do
+    batch[#batch + 1] = ARGV[1] .. token
+    if #batch == 500 or i == #tokens then
+        removed = removed + redis.call('DEL', unpack(batch))
+        batch = {}
+    end
+end
+redis.call('DEL', KEYS[1], KEYS[2])
+return removed
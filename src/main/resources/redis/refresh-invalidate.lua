@@ -0,0 +1,5 @@
+-- Removes a single refresh record and its index entry.
+-- KEYS[1] = record key, KEYS[2] = per-user index
+-- ARGV[1] = token
+redis.call('ZREM', KEYS[2], ARGV[1])
+return redis.call('DEL', KEYS[1])
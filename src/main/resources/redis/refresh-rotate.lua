@@ -0,0 +1,32 @@
+-- Atomically swaps an existing refresh record for a new one carrying the same claims.
+-- KEYS[1] = old record key, KEYS[2] = new record key, KEYS[3] = per-user index (sorted by expiry),
+-- KEYS[4] = security stamp
+-- ARGV[1] = expected user id, ARGV[2] = ttl seconds, ARGV[3] = old token id, ARGV[4] = new token id,
+-- ARGV[5] = issuedAt (epoch seconds), ARGV[6] = device, or '' to keep the old one
+-- Returns {1, newRecord} when rotated, {0} when the old record is gone or unreadable,
+-- {-1} when it belongs to another user and {-2} when the security stamp has changed since it was issued.
+local v = redis.call('GET', KEYS[1])
+if not v then
+    return { 0 }
+end
+redis.call('DEL', KEYS[1])
+redis.call('ZREM', KEYS[3], ARGV[3])
+local uid, stamp, _, roles, device, email = string.match(v, '^([^|]*)|([^|]*)|([^|]*)|([^|]*)|([^|]*)|(.*)$')
+if not uid then
+    return { 0 }
+end
+if uid ~= ARGV[1] then
+    return { -1 }
+end
+if stamp ~= (redis.call('GET', KEYS[4]) or '0') then
+    return { -2 }
+end
+if ARGV[6] ~= '' then
+    device = ARGV[6]
+end
+local record = uid .. '|' .. stamp .. '|' .. ARGV[5] .. '|' .. roles .. '|' .. device .. '|' .. email
+redis.call('SET', KEYS[2], record, 'EX', ARGV[2])
+redis.call('ZREMRANGEBYSCORE', KEYS[3], '-inf', ARGV[5])
+redis.call('ZADD', KEYS[3], tonumber(ARGV[5]) + tonumber(ARGV[2]), ARGV[4])
+redis.call('EXPIRE', KEYS[3], ARGV[2])
+return { 1, record }
@@ -0,0 +1,6 @@
+-- Drops a cached profile and bumps its version, so fills of reads that started earlier are refused.
+-- KEYS[1] = version, KEYS[2] = profile
+-- ARGV[1] = version ttl seconds
+redis.call('INCR', KEYS[1])
+redis.call('EXPIRE', KEYS[1], ARGV[1])
+return redis.call('DEL', KEYS[2])
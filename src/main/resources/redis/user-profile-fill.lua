@@ -0,0 +1,9 @@
+-- Caches a profile read from the database, unless the user was evicted since the read started.
+-- KEYS[1] = version, KEYS[2] = profile
+-- ARGV[1] = version seen before the read ('' if none), ARGV[2] = profile json, ARGV[3] = ttl seconds
+local version = redis.call('GET', KEYS[1]) or ''
+if version ~= ARGV[1] then
+  return 0
+end
+redis.call('SET', KEYS[2], ARGV[2], 'EX', ARGV[3])
+return 1
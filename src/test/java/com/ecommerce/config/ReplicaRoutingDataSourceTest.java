@@ -0,0 +1,129 @@
+package com.ecommerce.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DriverManagerDataSource primary;
+    private DriverManagerDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        for (DriverManagerDataSource ds : List.of(primary, replica)) {
+            JdbcTemplate t = new JdbcTemplate(ds);
+            t.execute("DROP TABLE IF EXISTS node");
+            t.execute("CREATE TABLE node (name VARCHAR(20), lag_ms INT)");
+        }
+        new JdbcTemplate(primary).update("INSERT INTO node VALUES ('primary', 0)");
+        new JdbcTemplate(replica).update("INSERT INTO node VALUES ('replica', 0)");
+
+        routing = new ReplicaRoutingDataSource(primary, List.of(replica), "SELECT lag_ms FROM node", 500,
+                new SimpleMeterRegistry());
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(lazy);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(lazy);
+        readWrite = new TransactionTemplate(tm);
+        readOnly = new TransactionTemplate(tm);
+        readOnly.setReadOnly(true);
+    }
+
+    @Test
+    void readOnlyTransactionsGoToHealthyReplica() {
+        routing.checkReplicas();
+
+        assertThat(inReadOnly()).isEqualTo("replica");
+        assertThat(inReadWrite()).isEqualTo("primary");
+        assertThat(name()).isEqualTo("primary");
+    }
+
+    @Test
+    void primaryReadTransactionsStayOnPrimary() {
+        routing.checkReplicas();
+        readOnly.setName(ReplicaRoutingDataSource.PRIMARY_READ);
+
+        assertThat(inReadOnly()).isEqualTo("primary");
+    }
+
+    @Test
+    void explicitCredentialsAreRoutedTheSameWay() {
+        assertThat(readOnly.<String>execute(s -> nameWithCredentials())).isEqualTo("primary");
+
+        routing.checkReplicas();
+
+        assertThat(readOnly.<String>execute(s -> nameWithCredentials())).isEqualTo("replica");
+        assertThat(nameWithCredentials()).isEqualTo("primary");
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimaryUntilItCatchesUp() {
+        new JdbcTemplate(replica).update("UPDATE node SET lag_ms = 5000");
+        routing.checkReplicas();
+        assertThat(inReadOnly()).isEqualTo("primary");
+
+        new JdbcTemplate(replica).update("UPDATE node SET lag_ms = 10");
+        routing.checkReplicas();
+        assertThat(inReadOnly()).isEqualTo("replica");
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToPrimary() {
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/none");
+        routing = new ReplicaRoutingDataSource(primary, List.of(unreachable), "SELECT 0", 500,
+                new SimpleMeterRegistry());
+        routing.checkReplicas();
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(lazy);
+        readOnly = new TransactionTemplate(new DataSourceTransactionManager(lazy));
+        readOnly.setReadOnly(true);
+
+        assertThat(inReadOnly()).isEqualTo("primary");
+    }
+
+    private String inReadOnly() {
+        return readOnly.execute(s -> name());
+    }
+
+    private String inReadWrite() {
+        return readWrite.execute(s -> name());
+    }
+
+    private String name() {
+        return jdbc.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private String nameWithCredentials() {
+        try (Connection c = routing.getConnection("sa", "");
+                Statement st = c.createStatement();
+                ResultSet rs = st.executeQuery("SELECT name FROM node")) {
+            rs.next();
+            return rs.getString(1);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static DriverManagerDataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}
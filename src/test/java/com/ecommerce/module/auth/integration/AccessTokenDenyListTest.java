@@ -0,0 +1,110 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.security.AccessTokenDenyList;
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.RevokedTokenSet;
+import com.ecommerce.module.auth.util.RedisGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two deny-lists sharing one Redis stand in for two application nodes.
+ */
+public class AccessTokenDenyListTest extends EmbeddedRedisSupport {
+
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret",
+                "replace_with_256_bit_minimum_string_for_tests_only________________________");
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (RedisMessageListenerContainer c : containers)
+            c.destroy();
+    }
+
+    @Test
+    void revocationReachesOtherNodesOverPubSub() throws InterruptedException {
+        RevokedTokenSet nodeA = new RevokedTokenSet();
+        RevokedTokenSet nodeB = new RevokedTokenSet();
+        AccessTokenDenyList denyListA = node(nodeA);
+        node(nodeB);
+
+        JwtAuthentication token = auth(1L);
+        JwtAuthentication otherUser = auth(2L);
+        denyListA.revoke(token);
+        denyListA.revokeUser(2L, 1);
+
+        assertThat(nodeA.isRevoked(token)).isTrue();
+        assertThat(eventually(() -> nodeB.isRevoked(token) && nodeB.isRevoked(otherUser))).isTrue();
+        assertThat(nodeB.isRevoked(auth(2L, 1))).isFalse();
+    }
+
+    @Test
+    void nodeStartingLaterLoadsExistingRevocations() {
+        JwtAuthentication token = auth(3L);
+        node(new RevokedTokenSet()).revoke(token);
+
+        RevokedTokenSet late = new RevokedTokenSet();
+        node(late);
+
+        assertThat(late.isRevoked(token)).isTrue();
+        assertThat(late.isRevoked(auth(3L))).isFalse();
+
+        node(late).revokeUser(4L, 2);
+        RevokedTokenSet later = new RevokedTokenSet();
+        node(later);
+        assertThat(later.isRevoked(auth(4L, 1))).isTrue();
+        assertThat(later.isRevoked(auth(4L, 2))).isFalse();
+    }
+
+    private AccessTokenDenyList node(RevokedTokenSet revoked) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+        AccessTokenDenyList denyList = new AccessTokenDenyList(redisTemplate,
+                new RedisGuard(new SimpleMeterRegistry(), 64, 20, 50, 20, 50, 5000, 5), container, revoked,
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(denyList, "accessExpirySeconds", 3600L);
+        ReflectionTestUtils.invokeMethod(denyList, "init");
+        return denyList;
+    }
+
+    private JwtAuthentication auth(Long userId) {
+        return auth(userId, 0);
+    }
+
+    private JwtAuthentication auth(Long userId, long stamp) {
+        return JwtAuthentication.from(provider.parse(provider.createAccessToken(userId, "a@b.com",
+                List.of("CUSTOMER"), stamp)).getBody());
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline)
+                return false;
+            Thread.sleep(10);
+        }
+        return true;
+    }
+}
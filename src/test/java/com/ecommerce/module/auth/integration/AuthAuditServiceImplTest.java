@@ -0,0 +1,104 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.entity.AuthEventType;
+import com.ecommerce.module.auth.service.impl.AuthAuditServiceImpl;
+import com.ecommerce.support.JpaSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the audit writer against an H2 {@code auth_audit_event} table created from the entity.
+ */
+public class AuthAuditServiceImplTest {
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.h2("auth-audit", JpaSupport.AUTH_ENTITIES);
+
+    private DataSource dataSource;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = jpa.dataSource();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void recordedEventsAreWrittenInOrder() {
+        AuthAuditServiceImpl audit = audit(new JdbcTemplate(dataSource), 64);
+
+        audit.record(AuthEventType.LOGIN, 7L, "10.0.0.1", null);
+        audit.record(AuthEventType.LOGIN_FAILED, 0L, "x".repeat(60), "d".repeat(300));
+        audit.record(AuthEventType.LOGOUT, 7L, "10.0.0.1", "web");
+        stop(audit);
+
+        List<Map<String, Object>> rows = new JdbcTemplate(dataSource).queryForList(
+                "select event_type, user_id, ip, detail, occurred_at from auth_audit_event order by id");
+        assertThat(rows).extracting(r -> r.get("EVENT_TYPE")).containsExactly("LOGIN", "LOGIN_FAILED", "LOGOUT");
+        assertThat(rows).extracting(r -> r.get("USER_ID")).containsExactly(7L, null, 7L);
+        assertThat((String) rows.get(1).get("IP")).hasSize(45);
+        assertThat((String) rows.get(1).get("DETAIL")).hasSize(255);
+        assertThat(rows.get(2).get("DETAIL")).isEqualTo("web");
+        assertThat(rows).allSatisfy(r -> assertThat(r.get("OCCURRED_AT")).isNotNull());
+        assertThat(meterRegistry.get("auth.audit.written").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("auth.audit.dropped").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void fullBufferDropsWhileTheWriterIsBusy() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        JdbcTemplate slow = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs, int[] argTypes) {
+                writing.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.batchUpdate(sql, batchArgs, argTypes);
+            }
+        };
+        AuthAuditServiceImpl audit = audit(slow, 4);
+
+        audit.record(AuthEventType.LOGIN, 1L, "10.0.0.1", null);
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        // the writer holds the first event; the ring has room for four more
+        for (int i = 0; i < 7; i++)
+            audit.record(AuthEventType.REFRESH, 1L, "10.0.0.1", null);
+        release.countDown();
+        stop(audit);
+
+        assertThat(new JdbcTemplate(dataSource).queryForObject("select count(*) from auth_audit_event", Long.class))
+                .isEqualTo(5);
+        assertThat(meterRegistry.get("auth.audit.written").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("auth.audit.dropped").functionCounter().count()).isEqualTo(3);
+    }
+
+    private AuthAuditServiceImpl audit(JdbcTemplate jdbcTemplate, int bufferSize) {
+        AuthAuditServiceImpl audit = new AuthAuditServiceImpl(jdbcTemplate, meterRegistry);
+        ReflectionTestUtils.setField(audit, "enabled", true);
+        ReflectionTestUtils.setField(audit, "bufferSize", bufferSize);
+        ReflectionTestUtils.setField(audit, "batchSize", 100);
+        ReflectionTestUtils.setField(audit, "flushIntervalMs", 10L);
+        ReflectionTestUtils.invokeMethod(audit, "init");
+        return audit;
+    }
+
+    private static void stop(AuthAuditServiceImpl audit) {
+        ReflectionTestUtils.invokeMethod(audit, "stop");
+    }
+}
@@ -0,0 +1,110 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
+import com.ecommerce.module.auth.entity.EmailTemplate;
+import com.ecommerce.module.auth.repository.EmailOutboxRepository;
+import com.ecommerce.module.auth.service.EmailService;
+import com.ecommerce.module.auth.service.impl.EmailOutboxWorker;
+import com.ecommerce.support.JpaSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the outbox worker against H2 with a mail service that fails for one recipient.
+ */
+public class EmailOutboxWorkerTest {
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.h2("email-outbox", JpaSupport.AUTH_ENTITIES);
+
+    private EmailOutboxRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        repository = jpa.repository(EmailOutboxRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        EmailService mail = new EmailService() {
+            @Override
+            public void sendVerificationEmail(String to, String verificationLink) {
+            }
+
+            @Override
+            public void sendPasswordResetEmail(String to, String resetLink) {
+            }
+
+            @Override
+            public Map<Long, Exception> sendBatch(List<EmailOutboxMessage> messages) {
+                return messages.stream().filter(m -> m.getRecipient().startsWith("bounce"))
+                        .collect(Collectors.toMap(EmailOutboxMessage::getId, m -> new IllegalStateException("550")));
+            }
+        };
+        worker = new EmailOutboxWorker(repository, new StaticListableBeanFactory(Map.of("mail", mail))
+                .getBeanProvider(EmailService.class), jpa.transactionTemplate(), meterRegistry);
+        ReflectionTestUtils.setField(worker, "workers", 1);
+        ReflectionTestUtils.setField(worker, "batchSize", 10);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 1);
+        ReflectionTestUtils.setField(worker, "leaseMs", 60_000L);
+        ReflectionTestUtils.setField(worker, "retentionMs", Duration.ofDays(7).toMillis());
+        ReflectionTestUtils.setField(worker, "retentionBatchSize", 2);
+        ReflectionTestUtils.invokeMethod(worker, "init");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(worker, "shutdown");
+    }
+
+    @Test
+    void sentAndDeadMessagesLoseTheirLink() {
+        Long sent = save("ann@example.com", "PENDING", Instant.now()).getId();
+        Long dead = save("bounce@example.com", "PENDING", Instant.now()).getId();
+
+        ReflectionTestUtils.invokeMethod(worker, "drain");
+
+        EmailOutboxMessage sentRow = repository.findById(sent).orElseThrow();
+        EmailOutboxMessage deadRow = repository.findById(dead).orElseThrow();
+        assertThat(sentRow.getStatus()).isEqualTo("SENT");
+        assertThat(sentRow.getLink()).isNull();
+        assertThat(deadRow.getStatus()).isEqualTo("DEAD");
+        assertThat(deadRow.getLink()).isNull();
+        assertThat(deadRow.getLastError()).isEqualTo("550");
+    }
+
+    @Test
+    void purgeDeletesFinishedMessagesPastTheRetention() {
+        Instant old = Instant.now().minus(Duration.ofDays(8));
+        for (int i = 0; i < 3; i++)
+            save("ann@example.com", "SENT", old);
+        save("bounce@example.com", "DEAD", old);
+        Long pending = save("bob@example.com", "PENDING", old).getId();
+        Long recent = save("carol@example.com", "SENT", Instant.now()).getId();
+
+        worker.purge();
+
+        assertThat(repository.findAll()).extracting(EmailOutboxMessage::getId).containsExactlyInAnyOrder(pending,
+                recent);
+        assertThat(meterRegistry.get("auth.mail.outbox.purged").counter().count()).isEqualTo(4);
+    }
+
+    private EmailOutboxMessage save(String recipient, String status, Instant createdAt) {
+        return jpa.transactionTemplate().execute(s -> repository.save(EmailOutboxMessage.builder()
+                .template(EmailTemplate.VERIFY_EMAIL).recipient(recipient)
+                .link("https://example.com/verify?token=" + recipient).status(status).createdAt(createdAt)
+                .nextAttemptAt(createdAt).build()));
+    }
+}
@@ -0,0 +1,152 @@
+package com.ecommerce.module.auth.integration;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * In-process TCP proxy in front of the embedded Redis that can delay replies or drop every connection,
+ * so clients see real socket-level slowness and failures.
+ */
+class FaultInjectingRedisProxy implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final int targetPort;
+    private final List<Socket> sockets = new CopyOnWriteArrayList<>();
+    private volatile long latencyMs;
+    private volatile boolean down;
+
+    FaultInjectingRedisProxy(int targetPort) throws IOException {
+        this.targetPort = targetPort;
+        this.serverSocket = new ServerSocket(0);
+        Thread acceptor = new Thread(this::accept, "redis-proxy-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    /** Delay applied to every chunk Redis sends back. */
+    void latency(long millis) {
+        latencyMs = millis;
+    }
+
+    /** Closes open connections and refuses new ones until set back to false. */
+    void down(boolean down) {
+        this.down = down;
+        if (down) {
+            for (Socket socket : sockets)
+                closeQuietly(socket);
+            sockets.clear();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket client = serverSocket.accept();
+                if (down) {
+                    closeQuietly(client);
+                    continue;
+                }
+                Socket server = new Socket();
+                server.connect(new InetSocketAddress("localhost", targetPort));
+                sockets.add(client);
+                sockets.add(server);
+                pipe(client, server);
+                delayedPipe(server, client);
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void pipe(Socket from, Socket to) {
+        daemon(() -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream(); OutputStream out = to.getOutputStream()) {
+                int n;
+                while ((n = in.read(buffer)) >= 0) {
+                    out.write(buffer, 0, n);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // connection closed
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        });
+    }
+
+    /**
+     * Holds each chunk until {@code latency} has passed since it arrived. The latency is re-read while
+     * waiting, so setting it back to 0 flushes the backlog at once.
+     */
+    private void delayedPipe(Socket from, Socket to) {
+        BlockingQueue<Chunk> queue = new LinkedBlockingQueue<>();
+        daemon(() -> {
+            byte[] buffer = new byte[8192];
+            try (InputStream in = from.getInputStream()) {
+                int n;
+                while ((n = in.read(buffer)) >= 0)
+                    queue.add(new Chunk(Arrays.copyOf(buffer, n), System.currentTimeMillis()));
+            } catch (IOException e) {
+                // connection closed
+            } finally {
+                queue.add(new Chunk(null, 0));
+            }
+        });
+        daemon(() -> {
+            try (OutputStream out = to.getOutputStream()) {
+                while (true) {
+                    Chunk chunk = queue.take();
+                    if (chunk.data() == null)
+                        break;
+                    while (System.currentTimeMillis() < chunk.receivedAt() + latencyMs)
+                        Thread.sleep(5);
+                    out.write(chunk.data());
+                    out.flush();
+                }
+            } catch (IOException | InterruptedException e) {
+                // connection closed
+            } finally {
+                closeQuietly(from);
+                closeQuietly(to);
+            }
+        });
+    }
+
+    private record Chunk(byte[] data, long receivedAt) {
+    }
+
+    private static void daemon(Runnable task) {
+        Thread t = new Thread(task, "redis-proxy-pipe");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        down(true);
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
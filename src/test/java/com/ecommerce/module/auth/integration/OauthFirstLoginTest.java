@@ -0,0 +1,152 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.dto.response.AuthResponse;
+import com.ecommerce.module.auth.repository.AuthOauthAccountRepository;
+import com.ecommerce.module.auth.service.impl.AuthServiceImpl;
+import com.ecommerce.module.auth.service.impl.RefreshTokenServiceImpl;
+import com.ecommerce.module.auth.util.OauthLinkCache;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import com.ecommerce.module.user.cache.RegisteredEmailFilter;
+import com.ecommerce.module.user.cache.UserProfileCache;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.support.JpaSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Races first OAuth logins against a real PostgreSQL, since the linking relies on its
+ * {@code ON CONFLICT DO NOTHING RETURNING} and on unique index waits between concurrent inserts.
+ */
+public class OauthFirstLoginTest extends EmbeddedRedisSupport {
+
+    private static final int CALLERS = 8;
+
+    private static EmbeddedPostgres postgres;
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.on(() -> postgres.getPostgresDatabase(), JpaSupport.USER_ENTITIES,
+            JpaSupport.AUTH_ENTITIES);
+
+    private JdbcTemplate jdbc;
+    private TrackingRedisCache trackingCache;
+    private AuthServiceImpl authService;
+
+    @BeforeAll
+    static void startPostgres() throws IOException {
+        postgres = EmbeddedPostgres.start();
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        UserRepository userRepository = jpa.repository(UserRepository.class);
+        AuthOauthAccountRepository oauthRepository = jpa.repository(AuthOauthAccountRepository.class);
+        JpaTransactionManager transactionManager = jpa.transactionManager();
+        jdbc = new JdbcTemplate(jpa.dataSource());
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        trackingCache = new TrackingRedisCache(connectionFactory, redisTemplate, meterRegistry, true, 1000, 60);
+        trackingCache.start();
+        RefreshTokenServiceImpl refreshTokens = new RefreshTokenServiceImpl(redisTemplate, trackingCache,
+                new RedisGuard(meterRegistry, 64, 20, 50, 20, 50, 5000, 5));
+
+        UserProfileCache profiles = new UserProfileCache(userRepository, transactionManager, redisTemplate,
+                new RedisMessageListenerContainer(), new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(profiles, "nearMaxEntries", 100L);
+        ReflectionTestUtils.setField(profiles, "nearTtlSeconds", 30L);
+        ReflectionTestUtils.setField(profiles, "redisTtlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(profiles, "init");
+        RegisteredEmailFilter registeredEmails = new RegisteredEmailFilter(userRepository, transactionManager,
+                redisTemplate, new RedisMessageListenerContainer(), meterRegistry);
+        ReflectionTestUtils.setField(registeredEmails, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(registeredEmails, "falsePositiveRate", 0.01);
+        ReflectionTestUtils.invokeMethod(registeredEmails, "init");
+
+        // the collaborators oauthLogin does not touch are left out
+        authService = new AuthServiceImpl(userRepository, oauthRepository, refreshTokens, null, null, null,
+                new TransactionTemplate(transactionManager), profiles, registeredEmails, null, null,
+                new OauthLinkCache(meterRegistry, 1000, 60));
+        ReflectionTestUtils.invokeMethod(authService, "initPrimaryRead");
+    }
+
+    @AfterEach
+    void tearDown() {
+        trackingCache.stop();
+    }
+
+    @Test
+    void parallelFirstLoginsOfOneProviderAccountCreateOneUserAndOneLink() throws Exception {
+        List<AuthResponse> responses = race(i -> () -> authService.oauthLogin("google", "g-100", "ann@example.com",
+                null, "web"));
+
+        Long userId = jdbc.queryForObject("select id from users where email = 'ann@example.com'", Long.class);
+        assertThat(responses).extracting(AuthResponse::getUserId).containsOnly(userId);
+        assertThat(jdbc.queryForObject("select count(*) from users", Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForList("select user_id from auth_oauth_accounts where provider = 'google'",
+                Long.class)).containsExactly(userId);
+    }
+
+    @Test
+    void parallelFirstLoginsWithOneEmailShareTheUser() throws Exception {
+        List<AuthResponse> responses = race(i -> () -> authService.oauthLogin(i % 2 == 0 ? "google" : "github",
+                "id-" + i, "bob@example.com", null, "web"));
+
+        Long userId = jdbc.queryForObject("select id from users where email = 'bob@example.com'", Long.class);
+        assertThat(responses).extracting(AuthResponse::getUserId).containsOnly(userId);
+        assertThat(jdbc.queryForObject("select count(*) from users", Long.class)).isEqualTo(1);
+        assertThat(jdbc.queryForList("select user_id from auth_oauth_accounts", Long.class))
+                .hasSize(CALLERS).containsOnly(userId);
+    }
+
+    private static List<AuthResponse> race(IntFunction<Callable<AuthResponse>> login)
+            throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<AuthResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                Callable<AuthResponse> call = login.apply(i);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return call.call();
+                }));
+            }
+            start.countDown();
+            List<AuthResponse> responses = new ArrayList<>();
+            for (Future<AuthResponse> f : futures)
+                responses.add(f.get());
+            return responses;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
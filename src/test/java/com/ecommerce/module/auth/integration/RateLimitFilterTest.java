@@ -0,0 +1,114 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.security.RateLimitFilter;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RateLimitFilterTest extends EmbeddedRedisSupport {
+
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new RateLimitFilter(redisTemplate,
+                new RedisGuard(new SimpleMeterRegistry(), 64, 20, 50, 20, 50, 5000, 5), new ObjectMapper(),
+                new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "localMaxEntries", 1000);
+    }
+
+    @Test
+    void limitsForgotPasswordPerEmailAcrossAddresses() throws Exception {
+        for (int i = 0; i < 3; i++)
+            assertThat(send("/api/v1/auth/forgot-password", "10.0.0." + i, "Victim@example.com").getStatus())
+                    .isEqualTo(200);
+
+        MockHttpServletResponse rejected = send("/api/v1/auth/forgot-password", "10.0.0.9", "victim@example.com");
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isNotBlank();
+        assertThat(rejected.getContentAsString()).contains("RATE_LIMITED");
+
+        assertThat(send("/api/v1/auth/forgot-password", "10.0.0.9", "other@example.com").getStatus())
+                .isEqualTo(200);
+    }
+
+    @Test
+    void blockedKeysAreRejectedLocallyWithoutRedis() throws Exception {
+        for (int i = 0; i < 3; i++)
+            send("/api/v1/auth/resend-verification", "10.0.1." + i, "a@example.com");
+        assertThat(send("/api/v1/auth/resend-verification", "10.0.1.9", "a@example.com").getStatus()).isEqualTo(429);
+
+        flushAll();
+
+        assertThat(send("/api/v1/auth/resend-verification", "10.0.1.9", "a@example.com").getStatus()).isEqualTo(429);
+        assertThat(redisTemplate.keys("auth:rl:*email*")).isEmpty();
+    }
+
+    @Test
+    void passesBodyThroughAndIgnoresOtherEndpoints() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletRequest request = request("/api/v1/auth/login", "10.0.2.1", "a@example.com");
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        assertThat(new String(chain.getRequest().getInputStream().readAllBytes(), StandardCharsets.UTF_8))
+                .contains("a@example.com");
+
+        for (int i = 0; i < 50; i++)
+            assertThat(send("/api/v1/auth/refresh-token", "10.0.2.2", null).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void limitsChunkedBodiesByEmailAndRejectsOversizedOnes() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(chunked("/api/v1/auth/forgot-password", "10.0.3." + i,
+                    "{\"email\":\"c@example.com\"}"), response, new MockFilterChain());
+            assertThat(response.getStatus()).isEqualTo(200);
+        }
+        assertThat(send("/api/v1/auth/forgot-password", "10.0.3.9", "c@example.com").getStatus()).isEqualTo(429);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(chunked("/api/v1/auth/login", "10.0.3.10",
+                "{\"email\":\"d@example.com\",\"pad\":\"" + "x".repeat(20_000) + "\"}"), response, chain);
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    private MockHttpServletResponse send(String path, String ip, String email) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, ip, email), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest chunked(String path, String ip, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path) {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletRequest request(String path, String ip, String email) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"email\":\"" + email + "\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.exception.ServiceUnavailableException;
+import com.ecommerce.module.auth.service.impl.RefreshTokenServiceImpl;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the refresh token service against a proxy that injects latency and connection loss.
+ */
+public class RedisResilienceTest extends EmbeddedRedisSupport {
+
+    private static final List<String> ROLES = List.of("CUSTOMER");
+
+    private FaultInjectingRedisProxy proxy;
+    private LettuceConnectionFactory proxiedFactory;
+    private SimpleMeterRegistry meterRegistry;
+    private RedisGuard guard;
+    private RefreshTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        proxy = new FaultInjectingRedisProxy(redisPort);
+        LettuceClientConfiguration clientConfig = LettuceClientConfiguration.builder()
+                .commandTimeout(Duration.ofMillis(100))
+                .clientOptions(ClientOptions.builder().timeoutOptions(TimeoutOptions.enabled())
+                        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS).build())
+                .build();
+        proxiedFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", proxy.port()),
+                clientConfig);
+        proxiedFactory.afterPropertiesSet();
+        proxiedFactory.start();
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(proxiedFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+
+        meterRegistry = new SimpleMeterRegistry();
+        // bulkhead of 2 without waiting, circuit opens at 50% of the last 4+ calls for 300 ms
+        guard = new RedisGuard(meterRegistry, 2, 0, 10, 4, 50, 300, 2);
+        TrackingRedisCache readThrough = new TrackingRedisCache(proxiedFactory, template, meterRegistry, false, 10,
+                60);
+        service = new RefreshTokenServiceImpl(template, readThrough, guard);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        proxiedFactory.destroy();
+        proxy.close();
+    }
+
+    @Test
+    void slowRedisTimesOutOpensTheCircuitAndRecovers() throws InterruptedException {
+        String token = service.createRefreshToken(1L, "a@b.com", ROLES, "web");
+        proxy.latency(1000);
+
+        // with the create call that is 4 calls, 3 failed: enough to open
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> service.validateRefreshToken(token))
+                    .isInstanceOfSatisfying(ServiceUnavailableException.class,
+                            e -> assertThat(e.getCode()).isEqualTo("REDIS_UNAVAILABLE"));
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        }
+        assertThat(guard.state()).isEqualTo(RedisGuard.State.OPEN);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.validateRefreshToken(token)).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(50));
+        assertThat(meterRegistry.get("redis.call").tag("outcome", "short_circuited").timer().count()).isEqualTo(1);
+
+        proxy.latency(0);
+        Thread.sleep(400);
+        assertThat(service.validateRefreshToken(token)).isEqualTo(1L);
+        assertThat(service.validateRefreshToken(token)).isEqualTo(1L);
+        assertThat(guard.state()).isEqualTo(RedisGuard.State.CLOSED);
+    }
+
+    @Test
+    void bulkheadRejectsCallsBeyondTheConcurrencyLimit() throws Exception {
+        String token = service.createRefreshToken(2L, "a@b.com", ROLES, "web");
+        proxy.latency(1000);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> calls = new java.util.ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return service.validateRefreshToken(token);
+                }));
+            start.countDown();
+            for (Future<?> call : calls)
+                assertThatThrownBy(call::get).hasCauseInstanceOf(ServiceUnavailableException.class);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(meterRegistry.get("redis.call").tag("outcome", "rejected").timer().count())
+                .isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.get("redis.call").tag("outcome", "failure").timer().count()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void lostConnectionFailsFast() {
+        String token = service.createRefreshToken(3L, "a@b.com", ROLES, "web");
+        proxy.down(true);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> service.rotateRefreshToken(token, "web"))
+                .isInstanceOf(ServiceUnavailableException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+    }
+}
@@ -0,0 +1,252 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.dto.response.RotatedRefreshToken;
+import com.ecommerce.module.auth.dto.response.SessionInfo;
+import com.ecommerce.module.auth.service.impl.RefreshIndexSweeper;
+import com.ecommerce.module.auth.service.impl.RefreshTokenServiceImpl;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RefreshTokenServiceImplTest extends EmbeddedRedisSupport {
+
+    private static final List<String> ROLES = List.of("CUSTOMER");
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingRedisCache trackingCache;
+    private RefreshTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        trackingCache = new TrackingRedisCache(connectionFactory, redisTemplate, meterRegistry, true,
+                1000, 60);
+        trackingCache.start();
+        service = new RefreshTokenServiceImpl(redisTemplate, trackingCache,
+                new RedisGuard(meterRegistry, 64, 20, 50, 20, 50, 5000, 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        trackingCache.stop();
+    }
+
+    @Test
+    void createdTokenValidatesToItsOwner() {
+        String token = service.createRefreshToken(42L, "a@b.com", ROLES, "web");
+
+        assertThat(token).startsWith("42.");
+        assertThat(service.validateRefreshToken(token)).isEqualTo(42L);
+        assertThat(redisTemplate.opsForZSet().size("auth:user-sessions:{42}")).isEqualTo(1);
+    }
+
+    @Test
+    void rotationReplacesTokenExactlyOnceAndCarriesClaims() {
+        String first = service.createRefreshToken(7L, "a|b@c.com", List.of("VENDOR", "STAFF"), "ios|17");
+
+        RotatedRefreshToken second = service.rotateRefreshToken(first, "web");
+
+        assertThat(second).isNotNull();
+        assertThat(second.getRefreshToken()).isNotEqualTo(first);
+        assertThat(second.getUserId()).isEqualTo(7L);
+        assertThat(second.getEmail()).isEqualTo("a|b@c.com");
+        assertThat(second.getRoles()).containsExactly("VENDOR", "STAFF");
+        assertThat(service.validateRefreshToken(first)).isNull();
+        assertThat(service.validateRefreshToken(second.getRefreshToken())).isEqualTo(7L);
+        assertThat(service.rotateRefreshToken(first, "web")).isNull();
+        assertThat(redisTemplate.opsForZSet().range("auth:user-sessions:{7}", 0, -1)).hasSize(1);
+    }
+
+    @Test
+    void bumpingSecurityStampRevokesRecordsWithStaleClaims() {
+        String stale = service.createRefreshToken(7L, "a@b.com", ROLES, "web");
+
+        service.bumpSecurityStamp(7L);
+        String fresh = service.createRefreshToken(7L, "a@b.com", List.of("VENDOR"), "web");
+
+        assertThat(service.rotateRefreshToken(stale, "web")).isNull();
+        assertThat(service.validateRefreshToken(stale)).isNull();
+        assertThat(service.rotateRefreshToken(fresh, "web").getRoles()).containsExactly("VENDOR");
+    }
+
+    @Test
+    void validationRejectsRecordsIssuedUnderAnOldStamp() throws InterruptedException {
+        String stale = service.createRefreshToken(16L, "a@b.com", ROLES, "web");
+        String other = service.createRefreshToken(17L, "c@d.com", ROLES, "web");
+        assertThat(service.validateRefreshToken(stale)).isEqualTo(16L);
+
+        service.bumpSecurityStamp(16L);
+
+        // the cached stamp is invalidated asynchronously on the tracking connection
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.validateRefreshToken(stale) != null && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertThat(service.validateRefreshToken(stale)).isNull();
+        assertThat(service.validateRefreshTokens(List.of(stale, other))).containsExactly(null, 17L);
+    }
+
+    @Test
+    void invalidateAllRemovesEveryRecord() {
+        String a = service.createRefreshToken(9L, "a@b.com", ROLES, "web");
+        String b = service.createRefreshToken(9L, "a@b.com", ROLES, "ios");
+        String other = service.createRefreshToken(10L, "c@d.com", ROLES, "web");
+
+        service.invalidateAllForUser(9L);
+
+        assertThat(service.validateRefreshToken(a)).isNull();
+        assertThat(service.validateRefreshToken(b)).isNull();
+        assertThat(service.validateRefreshToken(other)).isEqualTo(10L);
+        assertThat(redisTemplate.hasKey("auth:user-sessions:{9}")).isFalse();
+    }
+
+    @Test
+    void invalidateAllAlsoCoversTheLegacySetIndex() {
+        redisTemplate.opsForValue().set("auth:refresh:{12}:old", "12|0|0||web|a@b.com");
+        redisTemplate.opsForSet().add("auth:user-refreshs:{12}", "old");
+
+        service.invalidateAllForUser(12L);
+
+        assertThat(redisTemplate.hasKey("auth:refresh:{12}:old")).isFalse();
+        assertThat(redisTemplate.hasKey("auth:user-refreshs:{12}")).isFalse();
+    }
+
+    @Test
+    void sessionsArePagedFromTheIndexAndExpiredMembersAreSwept() {
+        service.createRefreshToken(13L, "a@b.com", ROLES, "web");
+        service.createRefreshToken(13L, "a@b.com", ROLES, "ios");
+        service.createRefreshToken(13L, "a@b.com", ROLES, "android");
+        redisTemplate.opsForZSet().add("auth:user-sessions:{13}", "dead", 1);
+
+        assertThat(service.countSessions(13L)).isEqualTo(3);
+        assertThat(service.listSessions(13L, 0, 2)).hasSize(2);
+        List<SessionInfo> rest = service.listSessions(13L, 1, 2);
+        assertThat(rest).hasSize(1);
+        assertThat(rest.get(0).getId()).hasSize(16);
+        assertThat(rest.get(0).getExpiresAt()).isAfter(rest.get(0).getIssuedAt());
+
+        RefreshIndexSweeper sweeper = new RefreshIndexSweeper(redisTemplate, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 10);
+        ReflectionTestUtils.setField(sweeper, "passIntervalMs", 60_000L);
+        sweeper.init();
+        for (int i = 0; i < 100 && redisTemplate.opsForZSet().score("auth:user-sessions:{13}", "dead") != null; i++)
+            sweeper.sweep();
+
+        assertThat(redisTemplate.opsForZSet().score("auth:user-sessions:{13}", "dead")).isNull();
+        assertThat(redisTemplate.opsForZSet().size("auth:user-sessions:{13}")).isEqualTo(3);
+        assertThat(meterRegistry.counter("auth.refresh.sweeper.removed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void sweeperNodesShareOnePassAndWaitForTheLock() {
+        for (int i = 0; i < 50; i++)
+            redisTemplate.opsForValue().set("other:" + i, "x");
+        redisTemplate.opsForZSet().add("auth:user-sessions:{18}", "dead", 1);
+        RefreshIndexSweeper first = sweeper();
+        RefreshIndexSweeper second = sweeper();
+
+        redisTemplate.opsForValue().set("auth:refresh-sweeper:lock", "1");
+        first.sweep();
+        assertThat(redisTemplate.hasKey("auth:refresh-sweeper:cursor")).isFalse();
+        assertThat(redisTemplate.hasKey("auth:refresh-sweeper:next-pass")).isFalse();
+        redisTemplate.delete("auth:refresh-sweeper:lock");
+
+        // one SCAN page per tick, continued by whichever node holds the lock
+        for (int i = 0; i < 100 && !redisTemplate.hasKey("auth:refresh-sweeper:next-pass"); i++)
+            (i % 2 == 0 ? first : second).sweep();
+
+        assertThat(redisTemplate.opsForZSet().score("auth:user-sessions:{18}", "dead")).isNull();
+        assertThat(redisTemplate.hasKey("auth:refresh-sweeper:cursor")).isFalse();
+        redisTemplate.opsForZSet().add("auth:user-sessions:{18}", "dead", 1);
+        second.sweep();
+        assertThat(redisTemplate.opsForZSet().score("auth:user-sessions:{18}", "dead")).isNotNull();
+    }
+
+    @Test
+    void sweeperOnlyReleasesItsOwnLock() {
+        AtomicBoolean expireLockDuringScan = new AtomicBoolean();
+        // SCAN is the first callback of a step: stand in for the lock expiring and another node taking it
+        RedisTemplate<String, String> racing = new RedisTemplate<>() {
+            @Override
+            public <T> T execute(RedisCallback<T> action) {
+                if (expireLockDuringScan.getAndSet(false))
+                    redisTemplate.opsForValue().set("auth:refresh-sweeper:lock", "other-node");
+                return super.execute(action);
+            }
+        };
+        racing.setConnectionFactory(connectionFactory);
+        racing.setKeySerializer(new StringRedisSerializer());
+        racing.setValueSerializer(new StringRedisSerializer());
+        racing.afterPropertiesSet();
+        RefreshIndexSweeper sweeper = sweeper(racing);
+
+        sweeper.sweep();
+        assertThat(redisTemplate.hasKey("auth:refresh-sweeper:lock")).isFalse();
+
+        expireLockDuringScan.set(true);
+        sweeper.sweep();
+        assertThat(redisTemplate.opsForValue().get("auth:refresh-sweeper:lock")).isEqualTo("other-node");
+    }
+
+    private RefreshIndexSweeper sweeper() {
+        return sweeper(redisTemplate);
+    }
+
+    private RefreshIndexSweeper sweeper(RedisTemplate<String, String> template) {
+        RefreshIndexSweeper sweeper = new RefreshIndexSweeper(template, meterRegistry);
+        ReflectionTestUtils.setField(sweeper, "enabled", true);
+        ReflectionTestUtils.setField(sweeper, "batchSize", 5);
+        ReflectionTestUtils.setField(sweeper, "passIntervalMs", 60_000L);
+        sweeper.init();
+        return sweeper;
+    }
+
+    @Test
+    void cachedValidationIsInvalidatedByRedis() throws InterruptedException {
+        String token = service.createRefreshToken(11L, "a@b.com", ROLES, "web");
+        assertThat(service.validateRefreshToken(token)).isEqualTo(11L);
+        assertThat(service.validateRefreshToken(token)).isEqualTo(11L);
+        // the record and the security stamp
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "redis.client.cache").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(2);
+
+        service.invalidate(token);
+
+        // the invalidation push arrives asynchronously on the tracking connection
+        long deadline = System.currentTimeMillis() + 2000;
+        while (service.validateRefreshToken(token) != null && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        assertThat(service.validateRefreshToken(token)).isNull();
+    }
+
+    @Test
+    void batchValidationKeepsInputOrder() {
+        String a = service.createRefreshToken(14L, "a@b.com", ROLES, "web");
+        String b = service.createRefreshToken(15L, "c@d.com", ROLES, "web");
+        assertThat(service.validateRefreshToken(a)).isEqualTo(14L);
+
+        assertThat(service.validateRefreshTokens(java.util.Arrays.asList(b, "junk", null, a, "14.unknown")))
+                .containsExactly(15L, null, null, 14L, null);
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        assertThat(service.validateRefreshToken(null)).isNull();
+        assertThat(service.validateRefreshToken("not-a-token")).isNull();
+        assertThat(service.validateRefreshToken("abc.def")).isNull();
+        assertThat(service.rotateRefreshToken("7.", "web")).isNull();
+        assertThat(service.rotateRefreshToken("7.unknown", "web")).isNull();
+    }
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.user.cache.RegisteredEmailFilter;
+import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.support.JpaSupport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Two filters over the same users table and Redis whose pub/sub listeners never run, so every email one
+ * of them adds reaches the other only through the shared set of recent registrations.
+ */
+public class RegisteredEmailFilterTest extends EmbeddedRedisSupport {
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.h2("email-filter", JpaSupport.USER_ENTITIES);
+
+    private UserRepository repository;
+    private JpaTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        repository = jpa.repository(UserRepository.class);
+        transactionManager = jpa.transactionManager();
+        new TransactionTemplate(transactionManager).executeWithoutResult(s -> repository.save(User.builder()
+                .fullName("Ann").email("ann@example.com").password("hash").role("CUSTOMER")
+                .isEmailVerified(true).isActive(true).createdAt(Instant.now()).updatedAt(Instant.now()).build()));
+    }
+
+    @Test
+    void negativesAreConfirmedAgainstRecentRegistrations() {
+        RegisteredEmailFilter first = filter();
+        RegisteredEmailFilter second = filter();
+        assertThat(second.mightExist("ann@example.com")).isTrue();
+        assertThat(second.mightExist("bob@example.com")).isFalse();
+
+        first.add("bob@example.com");
+
+        assertThat(second.mightExist("bob@example.com")).isTrue();
+        assertThat(second.mightExist("carol@example.com")).isFalse();
+    }
+
+    @Test
+    void syncCopiesRecentRegistrationsIntoTheFilter() {
+        RegisteredEmailFilter first = filter();
+        RegisteredEmailFilter second = filter();
+        first.add("bob@example.com");
+
+        second.sync();
+        flushAll();
+
+        assertThat(second.mightExist("bob@example.com")).isTrue();
+    }
+
+    @Test
+    void unreachableRedisMeansMightExist() {
+        RegisteredEmailFilter filter = filter();
+        connectionFactory.stop();
+        try {
+            assertThat(filter.mightExist("bob@example.com")).isTrue();
+        } finally {
+            connectionFactory.start();
+        }
+    }
+
+    private RegisteredEmailFilter filter() {
+        RegisteredEmailFilter filter = new RegisteredEmailFilter(repository, transactionManager, redisTemplate,
+                new RedisMessageListenerContainer(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "expectedInsertions", 1000L);
+        ReflectionTestUtils.setField(filter, "falsePositiveRate", 0.001);
+        ReflectionTestUtils.setField(filter, "recentRetentionMs", 3_600_000L);
+        ReflectionTestUtils.setField(filter, "rebuildIntervalMs", 21_600_000L);
+        ReflectionTestUtils.invokeMethod(filter, "init");
+        filter.rebuild();
+        return filter;
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.SigningKeyStore;
+import io.jsonwebtoken.JwsHeader;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SigningKeyStoreTest extends EmbeddedRedisSupport {
+
+    private static final String SECRET = "replace_with_256_bit_minimum_string_for_tests_only________________________";
+
+    @Test
+    void tokenSignedOnOneNodeVerifiesOnAnother() {
+        JwtTokenProvider nodeA = provider(store());
+        JwtTokenProvider nodeB = provider(store());
+
+        String token = nodeA.createAccessToken(5L, "a@b.com", List.of("CUSTOMER"), 0);
+
+        JwsHeader<?> header = nodeB.parse(token).getHeader();
+        assertThat(header.getAlgorithm()).isEqualTo("ES256");
+        assertThat(header.getKeyId()).isNotBlank();
+        assertThat(nodeB.parse(token).getBody().getSubject()).isEqualTo("5");
+    }
+
+    @Test
+    void rotatedKeySignsOnceActiveAndOldTokensStillVerify() {
+        SigningKeyStore store = new SigningKeyStore(redisTemplate, SECRET, 3600, 604800, 600);
+        ReflectionTestUtils.invokeMethod(store, "rotate", Instant.now().minusSeconds(100));
+        store.init();
+        JwtTokenProvider provider = provider(store);
+        String before = provider.createAccessToken(6L, "a@b.com", List.of("CUSTOMER"), 0);
+        String oldKid = store.current().kid();
+
+        ReflectionTestUtils.invokeMethod(store, "rotate", Instant.now().minusSeconds(1));
+        store.refresh();
+
+        assertThat(store.current().kid()).isNotEqualTo(oldKid);
+        assertThat(store.jwks().json()).contains(oldKid, store.current().kid());
+        assertThat(provider.parse(before).getBody().getSubject()).isEqualTo("6");
+    }
+
+    @Test
+    void unknownKeyIdAndLegacyTokensAreHandled() {
+        JwtTokenProvider es256 = provider(store());
+        JwtTokenProvider hs256 = provider(null);
+        String legacy = hs256.createAccessToken(7L, "a@b.com", List.of("CUSTOMER"), 0);
+
+        assertThat(es256.parse(legacy).getBody().getSubject()).isEqualTo("7");
+
+        ReflectionTestUtils.setField(es256, "legacyHs256", false);
+        ReflectionTestUtils.setField(es256, "parser", null);
+        assertThatThrownBy(() -> es256.parse(legacy)).isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    void privateKeysAreNotStoredInTheClear() {
+        SigningKeyStore store = store();
+        String stored = (String) redisTemplate.opsForHash().get("auth:jwt:keys", store.current().kid());
+        String pkcs8 = java.util.Base64.getEncoder().encodeToString(store.current().privateKey().getEncoded());
+
+        assertThat(stored).doesNotContain(pkcs8);
+    }
+
+    private static SigningKeyStore store() {
+        SigningKeyStore store = new SigningKeyStore(redisTemplate, SECRET, 3600, 604800, 600);
+        store.init();
+        return store;
+    }
+
+    private static JwtTokenProvider provider(SigningKeyStore store) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret", SECRET);
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+        ReflectionTestUtils.setField(provider, "signingKeys", store);
+        return provider;
+    }
+}
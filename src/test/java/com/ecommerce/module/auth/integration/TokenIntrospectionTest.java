@@ -0,0 +1,112 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.controller.IntrospectionController;
+import com.ecommerce.module.auth.dto.response.TokenIntrospection;
+import com.ecommerce.module.auth.exception.BadRequestException;
+import com.ecommerce.module.auth.exception.UnauthorizedException;
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.RevokedTokenSet;
+import com.ecommerce.module.auth.security.VerifiedTokenCache;
+import com.ecommerce.module.auth.service.impl.RefreshTokenServiceImpl;
+import com.ecommerce.module.auth.service.impl.TokenIntrospectionServiceImpl;
+import com.ecommerce.module.auth.util.RedisGuard;
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Drives the introspection controller and service over a real refresh token store.
+ */
+public class TokenIntrospectionTest extends EmbeddedRedisSupport {
+
+    private static final List<String> ROLES = List.of("CUSTOMER");
+
+    private SimpleMeterRegistry meterRegistry;
+    private TrackingRedisCache trackingCache;
+    private RefreshTokenServiceImpl refreshTokens;
+    private JwtTokenProvider provider;
+    private RevokedTokenSet revoked;
+    private TokenIntrospectionServiceImpl service;
+    private IntrospectionController controller;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        trackingCache = new TrackingRedisCache(connectionFactory, redisTemplate, meterRegistry, true, 1000, 60);
+        trackingCache.start();
+        refreshTokens = new RefreshTokenServiceImpl(redisTemplate, trackingCache,
+                new RedisGuard(meterRegistry, 64, 20, 50, 20, 50, 5000, 5));
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret",
+                "replace_with_256_bit_minimum_string_for_tests_only________________________");
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+        revoked = new RevokedTokenSet();
+        service = new TokenIntrospectionServiceImpl(refreshTokens, new VerifiedTokenCache(provider, 100), revoked,
+                meterRegistry);
+        ReflectionTestUtils.setField(service, "maxTokens", 10);
+        ReflectionTestUtils.setField(service, "maxTokenLength", 4096);
+        controller = new IntrospectionController(service);
+        ReflectionTestUtils.setField(controller, "apiKeys", List.of("gateway-key"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        trackingCache.stop();
+    }
+
+    @Test
+    void rejectsMissingAndUnknownApiKeys() {
+        Map<String, List<String>> body = Map.of("tokens", List.of("1.x"));
+
+        assertThatThrownBy(() -> controller.introspect(null, body)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> controller.introspect("", body)).isInstanceOf(UnauthorizedException.class);
+        assertThatThrownBy(() -> controller.introspect("gateway-key-2", body))
+                .isInstanceOf(UnauthorizedException.class);
+        assertThat(controller.introspect("gateway-key", body).getStatusCode().value()).isEqualTo(200);
+
+        ReflectionTestUtils.setField(controller, "apiKeys", List.of());
+        assertThatThrownBy(() -> controller.introspect("gateway-key", body))
+                .isInstanceOf(UnauthorizedException.class);
+    }
+
+    @Test
+    void mixedBatchKeepsOrderAndReportsEachToken() {
+        String access = provider.createAccessToken(21L, "a@b.com", ROLES, 0);
+        String revokedAccess = provider.createAccessToken(22L, "c@d.com", ROLES, 0);
+        JwtAuthentication revokedAuth = JwtAuthentication.from(provider.parse(revokedAccess).getBody());
+        revoked.addToken(revokedAuth.getTokenId(), revokedAuth.getExpiresAt().getEpochSecond());
+        String refresh = refreshTokens.createRefreshToken(21L, "a@b.com", ROLES, "web");
+        String staleRefresh = refreshTokens.createRefreshToken(23L, "e@f.com", ROLES, "web");
+        refreshTokens.bumpSecurityStamp(23L);
+
+        List<TokenIntrospection> results = service.introspect(Arrays.asList(access, refresh, revokedAccess,
+                staleRefresh, access.substring(0, access.length() - 2) + "xx", "junk", null, "9".repeat(5000)));
+
+        assertThat(results).extracting(TokenIntrospection::getType)
+                .containsExactly("access", "refresh", "access", "refresh", "access", "refresh", "refresh", "refresh");
+        assertThat(results).extracting(TokenIntrospection::isActive)
+                .containsExactly(true, true, false, false, false, false, false, false);
+        assertThat(results).extracting(TokenIntrospection::getUserId)
+                .containsExactly(21L, 21L, null, null, null, null, null, null);
+        assertThat(results.get(0).getExpiresAt()).isNotNull();
+        assertThat(results.get(1).getExpiresAt()).isNull();
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        assertThatThrownBy(() -> service.introspect(List.of())).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> service.introspect(Collections.nCopies(11, "1.x")))
+                .isInstanceOf(BadRequestException.class);
+    }
+}
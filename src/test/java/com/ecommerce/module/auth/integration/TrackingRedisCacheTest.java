@@ -0,0 +1,87 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.module.auth.util.TrackingRedisCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.io.IOException;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the near cache through a proxy that can drop its tracking connection; writes go straight to Redis.
+ */
+public class TrackingRedisCacheTest extends EmbeddedRedisSupport {
+
+    private FaultInjectingRedisProxy proxy;
+    private LettuceConnectionFactory proxiedFactory;
+    private TrackingRedisCache cache;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        proxy = new FaultInjectingRedisProxy(redisPort);
+        proxiedFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", proxy.port()));
+        proxiedFactory.afterPropertiesSet();
+        proxiedFactory.start();
+        RedisTemplate<String, String> template = new RedisTemplate<>();
+        template.setConnectionFactory(proxiedFactory);
+        template.setKeySerializer(new StringRedisSerializer());
+        template.setValueSerializer(new StringRedisSerializer());
+        template.afterPropertiesSet();
+        cache = new TrackingRedisCache(proxiedFactory, template, new SimpleMeterRegistry(), true, 100, 60);
+        cache.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        cache.stop();
+        proxiedFactory.destroy();
+        proxy.close();
+    }
+
+    @Test
+    void invalidationsUpdateCachedValues() throws InterruptedException {
+        assertThat(cache.isTracking()).isTrue();
+        redisTemplate.opsForValue().set("k", "v1");
+        assertThat(cache.get("k")).isEqualTo("v1");
+
+        redisTemplate.opsForValue().set("k", "v2");
+        assertThat(eventually(() -> "v2".equals(cache.get("k")))).isTrue();
+    }
+
+    @Test
+    void writesMissedWhileDisconnectedAreNotServedFromTheCache() throws InterruptedException {
+        redisTemplate.opsForValue().set("k", "v1");
+        assertThat(cache.get("k")).isEqualTo("v1");
+
+        proxy.down(true);
+        assertThat(eventually(() -> !cache.isTracking())).isTrue();
+        // no invalidation can reach the node for this write
+        redisTemplate.opsForValue().set("k", "v2");
+        proxy.down(false);
+
+        assertThat(eventually(cache::isTracking)).isTrue();
+        assertThat(cache.get("k")).isEqualTo("v2");
+
+        // tracking is active again on the new connection
+        redisTemplate.opsForValue().set("k", "v3");
+        assertThat(eventually(() -> "v3".equals(cache.get("k")))).isTrue();
+    }
+
+    private static boolean eventually(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean())
+                return true;
+            Thread.sleep(20);
+        }
+        return false;
+    }
+}
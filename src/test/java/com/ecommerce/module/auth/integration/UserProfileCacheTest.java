@@ -0,0 +1,128 @@
+package com.ecommerce.module.auth.integration;
+
+import com.ecommerce.config.ReplicaRoutingDataSource;
+import com.ecommerce.module.user.cache.UserProfile;
+import com.ecommerce.module.user.cache.UserProfileCache;
+import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.support.JpaSupport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the profile cache over H2 and Redis; the repository can run a write between a cache miss reading
+ * the database and the cache being filled.
+ */
+public class UserProfileCacheTest extends EmbeddedRedisSupport {
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.h2("profile-cache", JpaSupport.USER_ENTITIES);
+
+    private UserRepository repository;
+    private TransactionTemplate tx;
+    private Runnable afterRead;
+    private List<String> loads;
+    private UserProfileCache cache;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        repository = jpa.repository(UserRepository.class);
+        tx = jpa.transactionTemplate();
+        // the racing write commits on its own, not inside the cache's read
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        userId = tx.execute(s -> repository.save(User.builder().fullName("Ann").email("ann@example.com")
+                .password("hash").role("CUSTOMER").isEmailVerified(false).isActive(true)
+                .createdAt(Instant.now()).updatedAt(Instant.now()).build()).getId());
+
+        afterRead = null;
+        loads = new ArrayList<>();
+        UserRepository racing = (UserRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { UserRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().startsWith("findProfileBy"))
+                        loads.add(TransactionSynchronizationManager.getCurrentTransactionName());
+                    Object result;
+                    try {
+                        result = method.invoke(repository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                    Runnable hook = afterRead;
+                    afterRead = null;
+                    if (hook != null && method.getName().equals("findProfileById"))
+                        hook.run();
+                    return result;
+                });
+        cache = new UserProfileCache(racing, jpa.transactionManager(), redisTemplate,
+                new RedisMessageListenerContainer(), new ObjectMapper(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "nearMaxEntries", 100L);
+        ReflectionTestUtils.setField(cache, "nearTtlSeconds", 30L);
+        ReflectionTestUtils.setField(cache, "redisTtlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(cache, "init");
+    }
+
+    @Test
+    void cachesInBothTiersAndEvictReloads() {
+        assertThat(cache.findById(userId)).map(UserProfile::isEmailVerified).contains(false);
+        assertThat(redisTemplate.hasKey("user:profile:{" + userId + "}")).isTrue();
+
+        verify();
+
+        assertThat(cache.findById(userId)).map(UserProfile::isEmailVerified).contains(true);
+        assertThat(cache.findByEmail("ann@example.com")).map(UserProfile::id).contains(userId);
+        cache.evict(userId, "ann@example.com");
+        flushAll();
+        assertThat(cache.findByEmail("ann@example.com")).map(UserProfile::id).contains(userId);
+
+        // misses must not be served by a replica that has not seen the write behind the evict yet
+        assertThat(loads).hasSize(3).containsOnly(ReplicaRoutingDataSource.PRIMARY_READ);
+    }
+
+    @Test
+    void readThatRacesAnEvictIsNotCached() {
+        afterRead = this::verify;
+
+        // read before the write committed: stale, and must not outlive the evict
+        assertThat(cache.findById(userId)).map(UserProfile::isEmailVerified).contains(false);
+        assertThat(redisTemplate.hasKey("user:profile:{" + userId + "}")).isFalse();
+
+        assertThat(cache.findById(userId)).map(UserProfile::isEmailVerified).contains(true);
+        assertThat(redisTemplate.hasKey("user:profile:{" + userId + "}")).isTrue();
+    }
+
+    @Test
+    void unreachableRedisFallsBackToTheDatabase() {
+        connectionFactory.stop();
+        try {
+            assertThat(cache.findById(userId)).map(UserProfile::email).contains("ann@example.com");
+            assertThat(cache.findByEmail("ann@example.com")).map(UserProfile::id).contains(userId);
+            verify();
+            // nothing read while the version could not be checked was cached locally
+            assertThat(cache.findById(userId)).map(UserProfile::isEmailVerified).contains(true);
+        } finally {
+            connectionFactory.start();
+        }
+        assertThat(redisTemplate.hasKey("user:profile:{" + userId + "}")).isFalse();
+    }
+
+    private void verify() {
+        tx.executeWithoutResult(s -> repository.markEmailVerified(userId, Instant.now()));
+        cache.evict(userId, "ann@example.com");
+    }
+}
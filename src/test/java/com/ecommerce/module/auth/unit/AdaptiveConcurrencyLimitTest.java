@@ -0,0 +1,62 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.util.AdaptiveConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    private static final long MS = 1_000_000;
+
+    @Test
+    void growsWhileLatencyHoldsAndShrinksWhenRequestsQueue() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 200; i++)
+            complete(limit, limit.limit(), 10 * MS);
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(10);
+        assertThat(limit.congested()).isFalse();
+
+        // a few rounds; under sustained latency the baseline catches up over ~500 samples
+        for (int i = 0; i < 3; i++)
+            complete(limit, limit.limit(), 40 * MS);
+        assertThat(limit.congested()).isTrue();
+        assertThat(limit.limit()).isLessThan(grown);
+    }
+
+    @Test
+    void doesNotGrowWhileMostlyIdleAndBacksOffOnDrops() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 200; i++)
+            complete(limit, 1, 10 * MS);
+        assertThat(limit.limit()).isEqualTo(10);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+            limit.release(10 * MS, true);
+        }
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void admitsUpToTheRequestedShareOfTheLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 1.5, 0.2, 0.9);
+        for (int i = 0; i < 5; i++)
+            assertThat(limit.tryAcquire(0.5)).isTrue();
+        assertThat(limit.tryAcquire(0.5)).isFalse();
+        for (int i = 0; i < 5; i++)
+            assertThat(limit.tryAcquire(1.0)).isTrue();
+        assertThat(limit.tryAcquire(1.0)).isFalse();
+        assertThat(limit.inflight()).isEqualTo(10);
+    }
+
+    /** Runs {@code concurrent} overlapping requests that each took {@code rtt}. */
+    private static void complete(AdaptiveConcurrencyLimit limit, int concurrent, long rtt) {
+        int acquired = 0;
+        while (acquired < concurrent && limit.tryAcquire(1.0))
+            acquired++;
+        for (int i = 0; i < acquired; i++)
+            limit.release(rtt, false);
+    }
+}
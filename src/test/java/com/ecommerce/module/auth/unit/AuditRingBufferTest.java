@@ -0,0 +1,56 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.entity.AuthEventType;
+import com.ecommerce.module.auth.util.AuditRingBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class AuditRingBufferTest {
+
+    @Test
+    void dropsInsteadOfOverwritingWhenFull() {
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (int i = 1; i <= 6; i++)
+            buffer.offer(AuthEventType.LOGIN, i, null, null, i);
+
+        List<Long> users = new ArrayList<>();
+        assertThat(buffer.drain(slot -> users.add(slot.userId()), 10)).isEqualTo(4);
+        assertThat(users).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(buffer.dropped()).isEqualTo(2);
+        assertThat(buffer.offer(AuthEventType.LOGOUT, 7, null, null, 7)).isTrue();
+    }
+
+    @Test
+    void concurrentProducersLoseNothingThatWasAccepted() throws InterruptedException {
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            long base = (long) p * perProducer;
+            Thread t = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++)
+                    buffer.offer(AuthEventType.REFRESH, base + i, null, null, 0);
+                done.countDown();
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        while (done.getCount() > 0 || buffer.size() > 0)
+            buffer.drain(slot -> assertThat(seen.add(slot.userId())).isTrue(), 256);
+        for (Thread t : threads)
+            t.join();
+
+        assertThat(seen.size() + buffer.dropped()).isEqualTo((long) producers * perProducer);
+    }
+}
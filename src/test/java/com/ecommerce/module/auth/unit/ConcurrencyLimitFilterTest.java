@@ -0,0 +1,90 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.security.ConcurrencyLimitFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "initialLimit", 1);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        ReflectionTestUtils.setField(filter, "maxLimit", 1);
+        ReflectionTestUtils.setField(filter, "tolerance", 1.5);
+        ReflectionTestUtils.setField(filter, "smoothing", 0.2);
+        ReflectionTestUtils.setField(filter, "backoffRatio", 0.9);
+        ReflectionTestUtils.setField(filter, "lowPriorityShare", 0.5);
+        ReflectionTestUtils.setField(filter, "retryAfterSeconds", 2L);
+        filter.init();
+    }
+
+    @Test
+    void rejectsOverflowPerEndpointWith503() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> inFlight = CompletableFuture.supplyAsync(
+                () -> send("/api/v1/auth/login", (req, res) -> {
+                    entered.countDown();
+                    await(release);
+                }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = send("/api/v1/auth/login", new MockFilterChain());
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("OVERLOADED");
+        assertThat(send("/api/v1/auth/refresh-token", new MockFilterChain()).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.counter("auth.concurrency.rejected", "endpoint", "/api/v1/auth/login",
+                "priority", "low").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.concurrency.inflight").tag("endpoint", "/api/v1/auth/login").gauge()
+                .value()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        assertThat(send("/api/v1/auth/login", new MockFilterChain()).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void ignoresOtherPaths() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        send("/api/v1/users/me", chain);
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private MockHttpServletResponse send(String path, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(new MockHttpServletRequest("POST", path), response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
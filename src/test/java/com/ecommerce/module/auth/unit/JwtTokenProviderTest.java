@@ -20,7 +20,7 @@ public class JwtTokenProviderTest {
                 "replace_with_256_bit_minimum_string_for_tests_only________________________");
         ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
 
-        String token = provider.createAccessToken(123L, "a@b.com", List.of("CUSTOMER"));
+        String token = provider.createAccessToken(123L, "a@b.com", List.of("CUSTOMER"), 0);
         assertThat(token).isNotBlank();
 
         Jws<Claims> parsed = provider.parse(token);
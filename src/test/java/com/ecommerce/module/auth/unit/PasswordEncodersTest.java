@@ -0,0 +1,66 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.security.PasswordEncoders;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PasswordEncodersTest {
+
+    @Test
+    void calibrationPicksTheHighestCostUnderTheTarget() {
+        // 10 ms at cost 4, doubling per step: 80 ms at 7, 160 ms at 8
+        assertThat(PasswordEncoders.calibrateBcryptCost(Duration.ofMillis(100), 4, 12, PasswordEncodersTest::nanos))
+                .isEqualTo(7);
+        assertThat(PasswordEncoders.calibrateBcryptCost(Duration.ofMillis(5), 4, 12, PasswordEncodersTest::nanos))
+                .isEqualTo(4);
+        assertThat(PasswordEncoders.calibrateBcryptCost(Duration.ofSeconds(60), 4, 12, PasswordEncodersTest::nanos))
+                .isEqualTo(12);
+        // the chosen cost turns out much slower than extrapolated
+        assertThat(PasswordEncoders.calibrateBcryptCost(Duration.ofMillis(100), 4, 12,
+                cost -> cost == 7 ? 400_000_000L : nanos(cost))).isEqualTo(6);
+    }
+
+    @Test
+    void hashesRecordTheirAlgorithmAndOffCostOrLegacyOnesAreUpgraded() {
+        PasswordEncoder encoder = PasswordEncoders.delegating(5, 1, true);
+
+        String current = encoder.encode("secret");
+        assertThat(current).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("secret", current)).isTrue();
+        assertThat(encoder.upgradeEncoding(current)).isFalse();
+
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(6).encode("secret"))).isFalse();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(7).encode("secret"))).isTrue();
+
+        String unprefixed = new BCryptPasswordEncoder(5).encode("secret");
+        assertThat(encoder.matches("secret", unprefixed)).isTrue();
+        assertThat(PasswordEncoders.labelled(unprefixed)).isEqualTo("{bcrypt}" + unprefixed);
+        assertThat(encoder.upgradeEncoding(PasswordEncoders.labelled(unprefixed))).isFalse();
+        assertThat(PasswordEncoders.labelled(current)).isEqualTo(current);
+        assertThat(PasswordEncoders.labelled("plain")).isEqualTo("plain");
+
+        String pbkdf2 = "{pbkdf2@SpringSecurity_v5_8}"
+                + Pbkdf2PasswordEncoder.defaultsForSpringSecurity_v5_8().encode("secret");
+        assertThat(encoder.matches("secret", pbkdf2)).isTrue();
+        assertThat(encoder.upgradeEncoding(pbkdf2)).isTrue();
+    }
+
+    @Test
+    void calibratedCostNeverRehashesDownward() {
+        PasswordEncoder encoder = PasswordEncoders.delegating(5, 1, false);
+
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(encoder.upgradeEncoding("{bcrypt}" + new BCryptPasswordEncoder(9).encode("secret"))).isFalse();
+    }
+
+    private static long nanos(int cost) {
+        return 10_000_000L << (cost - 4);
+    }
+}
@@ -0,0 +1,86 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.exception.TooManyRequestsException;
+import com.ecommerce.module.auth.security.PasswordHasher;
+import com.ecommerce.module.auth.security.PasswordHasher.Operation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        ReflectionTestUtils.invokeMethod(hasher, "shutdown");
+    }
+
+    @Test
+    void rejectsOperationOverItsShareWithoutStarvingOthers() throws Exception {
+        hasher = newHasher(new BlockingEncoder(release));
+
+        // 1 thread + 1 queue slot; login may use half of it, registration the other half
+        CompletableFuture<String> inFlight = CompletableFuture.supplyAsync(() -> hasher.encode(Operation.LOGIN, "a"));
+        awaitQueued();
+
+        assertThatThrownBy(() -> hasher.encode(Operation.LOGIN, "b"))
+                .isInstanceOf(TooManyRequestsException.class);
+        CompletableFuture<String> register = CompletableFuture
+                .supplyAsync(() -> hasher.encode(Operation.REGISTER, "c"));
+
+        release.countDown();
+        assertThat(inFlight.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:a");
+        assertThat(register.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:c");
+        assertThat(meterRegistry.counter("auth.hashing.rejected", "operation", "login").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("auth.hashing.duration", "operation", "register").count()).isEqualTo(1);
+    }
+
+    private void awaitQueued() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.find("auth.hashing.queue.wait").timer() == null
+                && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+    }
+
+    private PasswordHasher newHasher(PasswordEncoder encoder) {
+        PasswordHasher h = new PasswordHasher(encoder, meterRegistry);
+        ReflectionTestUtils.setField(h, "threads", 1);
+        ReflectionTestUtils.setField(h, "queueCapacity", 1);
+        ReflectionTestUtils.setField(h, "maxWaitMs", 5000L);
+        ReflectionTestUtils.setField(h, "retryAfterSeconds", 1L);
+        ReflectionTestUtils.setField(h, "loginShare", 0.5);
+        ReflectionTestUtils.setField(h, "registerShare", 0.5);
+        ReflectionTestUtils.setField(h, "resetShare", 0.5);
+        ReflectionTestUtils.invokeMethod(h, "init");
+        return h;
+    }
+
+    private record BlockingEncoder(CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.RevokedTokenSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class RevokedTokenSetTest {
+
+    private JwtTokenProvider provider;
+    private RevokedTokenSet revoked;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret",
+                "replace_with_256_bit_minimum_string_for_tests_only________________________");
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+        revoked = new RevokedTokenSet();
+    }
+
+    @Test
+    void revokedTokenIdIsRejectedAndOthersAreNot() {
+        JwtAuthentication a = auth(1L);
+        JwtAuthentication b = auth(1L);
+
+        revoked.addToken(a.getTokenId(), a.getExpiresAt().getEpochSecond());
+
+        assertThat(revoked.isRevoked(a)).isTrue();
+        assertThat(revoked.isRevoked(b)).isFalse();
+    }
+
+    @Test
+    void userRevocationRejectsTokensIssuedUnderAnOlderStamp() {
+        JwtAuthentication before = auth(2L, 0);
+        revoked.addUser(2L, 1, Instant.now().getEpochSecond());
+
+        assertThat(revoked.isRevoked(before)).isTrue();
+        // issued in the same second as the revocation, but under the new stamp
+        assertThat(revoked.isRevoked(auth(2L, 1))).isFalse();
+        assertThat(revoked.isRevoked(auth(3L, 0))).isFalse();
+    }
+
+    @Test
+    void purgeDropsExpiredEntriesAndKeepsLiveOnes() {
+        JwtAuthentication live = auth(4L);
+        long now = Instant.now().getEpochSecond();
+        revoked.addToken("expired", now - 10);
+        revoked.addToken(live.getTokenId(), live.getExpiresAt().getEpochSecond());
+        revoked.addUser(5L, 1, now - 7200);
+
+        revoked.purgeExpired(now, 3600);
+
+        assertThat(revoked.tokenCount()).isEqualTo(1);
+        assertThat(revoked.userCount()).isZero();
+        assertThat(revoked.isRevoked(live)).isTrue();
+    }
+
+    private JwtAuthentication auth(Long userId) {
+        return auth(userId, 0);
+    }
+
+    private JwtAuthentication auth(Long userId, long stamp) {
+        return JwtAuthentication.from(provider.parse(provider.createAccessToken(userId, "a@b.com",
+                List.of("CUSTOMER"), stamp)).getBody());
+    }
+}
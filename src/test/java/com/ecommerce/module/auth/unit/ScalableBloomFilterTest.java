@@ -0,0 +1,34 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.util.ScalableBloomFilter;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ScalableBloomFilterTest {
+
+    @Test
+    void neverReportsInsertedValuesMissingAfterGrowing() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++)
+            filter.put("user" + i + "@example.com");
+
+        assertThat(filter.size()).isEqualTo(20_000);
+        for (int i = 0; i < 20_000; i++)
+            assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+    }
+
+    @Test
+    void keepsFalsePositiveRateNearTarget() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 20_000; i++)
+            filter.put("user" + i + "@example.com");
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com"))
+                falsePositives++;
+        }
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
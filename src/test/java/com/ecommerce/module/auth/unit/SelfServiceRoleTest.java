@@ -0,0 +1,43 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.dto.request.RegisterRequest;
+import com.ecommerce.module.auth.exception.BadRequestException;
+import com.ecommerce.module.auth.service.impl.AuthServiceImpl;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Registration and first OAuth login may only ask for the self-service roles.
+ */
+public class SelfServiceRoleTest {
+
+    // the role is checked before any collaborator is touched
+    private final AuthServiceImpl authService = new AuthServiceImpl(null, null, null, null, null, null, null, null,
+            null, null, null, null);
+
+    @Test
+    void registeringAsAdminIsRefused() {
+        RegisterRequest request = RegisterRequest.builder().fullName("Mallory").email("mallory@example.com")
+                .password("password-1").role("ADMIN").build();
+
+        assertThatThrownBy(() -> authService.register(request)).isInstanceOf(BadRequestException.class)
+                .extracting("code").isEqualTo("INVALID_ROLE");
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            assertThat(validator.validate(request)).extracting(v -> v.getPropertyPath().toString())
+                    .containsExactly("role");
+            request.setRole("VENDOR");
+            assertThat(validator.validate(request)).isEmpty();
+        }
+    }
+
+    @Test
+    void oauthLoginCannotAskForAdmin() {
+        assertThatThrownBy(() -> authService.oauthLogin("google", "g-1", "mallory@example.com", "ADMIN", "web"))
+                .isInstanceOf(BadRequestException.class).extracting("code").isEqualTo("INVALID_ROLE");
+    }
+}
@@ -0,0 +1,72 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.entity.EmailOutboxMessage;
+import com.ecommerce.module.auth.entity.EmailTemplate;
+import com.ecommerce.module.auth.service.impl.SpringEmailService;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class SpringEmailServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SpringEmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(greenMail.getSmtp().getPort());
+
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        SpringTemplateEngine thymeleaf = new SpringTemplateEngine();
+        thymeleaf.setTemplateResolver(resolver);
+
+        emailService = new SpringEmailService(mailSender, thymeleaf, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void sendsBatchOverSmtp() throws Exception {
+        Map<Long, Exception> failures = emailService.sendBatch(List.of(
+                message(1L, EmailTemplate.VERIFY_EMAIL, "a@example.com", "https://app/verify?token=1"),
+                message(2L, EmailTemplate.PASSWORD_RESET, "b@example.com", "https://app/reset?token=2")));
+
+        assertThat(failures).isEmpty();
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("Verify your email");
+        assertThat(GreenMailUtil.getAddressList(received[0].getAllRecipients())).isEqualTo("a@example.com");
+        assertThat(received[1].getSubject()).isEqualTo("Reset your password");
+        assertThat(GreenMailUtil.getAddressList(received[1].getAllRecipients())).isEqualTo("b@example.com");
+    }
+
+    @Test
+    void reportsFailedMessagesWithoutDroppingTheRest() {
+        Map<Long, Exception> failures = emailService.sendBatch(List.of(
+                message(1L, EmailTemplate.VERIFY_EMAIL, "not an address", "https://app/verify?token=1"),
+                message(2L, EmailTemplate.VERIFY_EMAIL, "b@example.com", "https://app/verify?token=2")));
+
+        assertThat(failures).containsOnlyKeys(1L);
+        assertThat(greenMail.getReceivedMessages()).hasSize(1);
+    }
+
+    private static EmailOutboxMessage message(Long id, EmailTemplate template, String to, String link) {
+        return EmailOutboxMessage.builder().id(id).template(template).recipient(to).link(link).build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.ecommerce.module.auth.unit;
+
+import com.ecommerce.module.auth.security.JwtAuthentication;
+import com.ecommerce.module.auth.security.JwtTokenProvider;
+import com.ecommerce.module.auth.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private JwtTokenProvider provider;
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "accessSecret",
+                "replace_with_256_bit_minimum_string_for_tests_only________________________");
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", 3600L);
+        cache = new VerifiedTokenCache(provider, 100);
+    }
+
+    @Test
+    void resolvesVerifiedTokenOnceAndReusesIt() {
+        String token = provider.createAccessToken(123L, "a@b.com", List.of("CUSTOMER"), 0);
+
+        JwtAuthentication first = cache.resolve(token);
+        JwtAuthentication second = cache.resolve(token);
+
+        assertThat(first).isNotNull().isSameAs(second);
+        assertThat(first.getPrincipal()).isEqualTo(123L);
+        assertThat(first.getAuthorities()).extracting("authority").containsExactly("CUSTOMER");
+        assertThat(first.isAuthenticated()).isTrue();
+        assertThatThrownBy(() -> first.setAuthenticated(false)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = provider.createAccessToken(123L, "a@b.com", List.of("CUSTOMER"), 0);
+        assertThat(cache.resolve(token.substring(0, token.length() - 2) + "xx")).isNull();
+
+        ReflectionTestUtils.setField(provider, "accessExpirySeconds", -60L);
+        assertThat(cache.resolve(provider.createAccessToken(123L, "a@b.com", List.of("CUSTOMER"), 0))).isNull();
+        assertThat(cache.resolve("not-a-jwt")).isNull();
+    }
+}
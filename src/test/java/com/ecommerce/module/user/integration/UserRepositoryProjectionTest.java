@@ -0,0 +1,66 @@
+package com.ecommerce.module.user.integration;
+
+import com.ecommerce.module.user.cache.UserProfile;
+import com.ecommerce.module.user.entity.User;
+import com.ecommerce.module.user.repository.UserRepository;
+import com.ecommerce.module.user.repository.projection.UserCredentials;
+import com.ecommerce.support.JpaSupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the projection and bulk update queries of {@link UserRepository} against H2.
+ */
+public class UserRepositoryProjectionTest {
+
+    @RegisterExtension
+    final JpaSupport jpa = JpaSupport.h2("users", JpaSupport.USER_ENTITIES);
+
+    private UserRepository repository;
+    private TransactionTemplate tx;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        repository = jpa.repository(UserRepository.class);
+        tx = jpa.transactionTemplate();
+
+        User user = User.builder().fullName("Ann").email("ann@example.com").password("hash-1").role("CUSTOMER")
+                .isEmailVerified(false).isActive(true).createdAt(Instant.now()).updatedAt(Instant.EPOCH).build();
+        userId = tx.execute(s -> repository.save(user).getId());
+    }
+
+    @Test
+    void projectionsReadOnlyTheNeededColumns() {
+        assertThat(repository.findCredentialsByEmail("ann@example.com")).contains(
+                new UserCredentials(userId, "ann@example.com", "hash-1", "CUSTOMER", "Ann", false));
+        assertThat(repository.findProfileById(userId)).contains(
+                new UserProfile(userId, "ann@example.com", "CUSTOMER", "Ann", false, true));
+        assertThat(repository.findProfileByEmail("ann@example.com")).map(UserProfile::id).contains(userId);
+        assertThat(repository.findIdByEmail("ann@example.com")).contains(userId);
+        assertThat(repository.findIdByEmail("nobody@example.com")).isEmpty();
+    }
+
+    @Test
+    void bulkUpdatesChangeTheRowWithoutLoadingIt() {
+        Instant now = Instant.now();
+        Integer verified = tx.execute(s -> repository.markEmailVerified(userId, now));
+        Integer changed = tx.execute(s -> repository.updatePassword(userId, "hash-2", now));
+        Integer missing = tx.execute(s -> repository.updatePassword(-1L, "hash-3", now));
+
+        assertThat(verified).isEqualTo(1);
+        assertThat(changed).isEqualTo(1);
+        assertThat(missing).isZero();
+
+        User user = repository.findById(userId).orElseThrow();
+        assertThat(user.getIsEmailVerified()).isTrue();
+        assertThat(user.getPassword()).isEqualTo("hash-2");
+        assertThat(user.getUpdatedAt()).isAfter(Instant.EPOCH);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.module.user.unit;
+
+import com.ecommerce.module.user.util.ImportRowReader;
+import com.ecommerce.module.user.util.ImportRowReader.Entry;
+import com.ecommerce.module.user.util.ImportRowReader.Format;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.*;
+
+public class ImportRowReaderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void readsCsvColumnsByHeaderName() throws Exception {
+        String csv = """
+                role,email,full_name,password
+                VENDOR,a@example.com,"Acme, Inc.",secret123
+
+                ,b@example.com,"Bob ""B"" Smith",secret456
+                """;
+        try (ImportRowReader reader = new ImportRowReader(new StringReader(csv), Format.CSV, objectMapper)) {
+            Entry first = reader.next();
+            assertThat(first.line()).isEqualTo(2);
+            assertThat(first.row().getEmail()).isEqualTo("a@example.com");
+            assertThat(first.row().getFullName()).isEqualTo("Acme, Inc.");
+            assertThat(first.row().getRole()).isEqualTo("VENDOR");
+
+            Entry second = reader.next();
+            assertThat(second.line()).isEqualTo(4);
+            assertThat(second.row().getFullName()).isEqualTo("Bob \"B\" Smith");
+            assertThat(second.row().getPassword()).isEqualTo("secret456");
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void reportsMalformedNdjsonLinesAndKeepsReading() throws Exception {
+        String ndjson = """
+                {"email":"a@example.com","password":"secret123"}
+                {"email":
+                {"email":"c@example.com","password":"secret789","role":"STAFF"}
+                """;
+        try (ImportRowReader reader = new ImportRowReader(new StringReader(ndjson), Format.NDJSON, objectMapper)) {
+            assertThat(reader.next().row().getEmail()).isEqualTo("a@example.com");
+            Entry bad = reader.next();
+            assertThat(bad.row()).isNull();
+            assertThat(bad.error()).isNotNull();
+            assertThat(reader.next().row().getRole()).isEqualTo("STAFF");
+        }
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        ImportRowReader reader = new ImportRowReader(new StringReader("name,role\nx,y\n"), Format.CSV, objectMapper);
+        assertThatThrownBy(reader::next).isInstanceOf(IllegalArgumentException.class);
+    }
+}
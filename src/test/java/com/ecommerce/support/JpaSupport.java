@@ -0,0 +1,86 @@
+package com.ecommerce.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Builds a Hibernate entity manager factory over the given entity packages before every test, creating
+ * the schema, and drops it afterwards. Register it as an instance field with
+ * {@link org.junit.jupiter.api.extension.RegisterExtension}; it is ready in {@code @BeforeEach} methods.
+ */
+public final class JpaSupport implements BeforeEachCallback, AfterEachCallback {
+
+    public static final String USER_ENTITIES = "com.ecommerce.module.user.entity";
+    public static final String AUTH_ENTITIES = "com.ecommerce.module.auth.entity";
+
+    private final Supplier<DataSource> dataSourceSupplier;
+    private final String[] packages;
+    private DataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private JpaRepositoryFactory repositories;
+    private JpaTransactionManager transactionManager;
+
+    private JpaSupport(Supplier<DataSource> dataSourceSupplier, String[] packages) {
+        this.dataSourceSupplier = dataSourceSupplier;
+        this.packages = packages;
+    }
+
+    /** An in-memory H2 database; tests in one class share it, each starting from an empty schema. */
+    public static JpaSupport h2(String name, String... packages) {
+        return new JpaSupport(() -> new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa",
+                ""), packages);
+    }
+
+    /** A database started elsewhere, for instance in {@code @BeforeAll}; resolved before every test. */
+    public static JpaSupport on(Supplier<DataSource> dataSource, String... packages) {
+        return new JpaSupport(dataSource, packages);
+    }
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        dataSource = dataSourceSupplier.get();
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(packages);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.hbm2ddl.auto", "create-drop"));
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory emf = factoryBean.getObject();
+        repositories = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(emf));
+        transactionManager = new JpaTransactionManager(emf);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        factoryBean.destroy();
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    public <R> R repository(Class<R> repositoryInterface) {
+        return repositories.getRepository(repositoryInterface);
+    }
+
+    public JpaTransactionManager transactionManager() {
+        return transactionManager;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+}